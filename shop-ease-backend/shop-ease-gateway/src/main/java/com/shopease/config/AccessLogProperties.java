@@ -0,0 +1,44 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关访问日志配置（绑定 application.yml 中的 shopease.gateway.access-log 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.access-log")
+public class AccessLogProperties {
+
+    // 是否启用访问日志
+    private boolean enabled = true;
+
+    // 日志目录
+    private String directory = "logs";
+
+    // 日志文件名（滚动后的文件追加时间后缀，如 access.log.20251203-101500123）
+    private String fileName = "access.log";
+
+    // 单个日志文件大小上限（字节）
+    private long maxFileSize = 100L * 1024 * 1024;
+
+    // 保留的历史文件数
+    private int maxHistory = 10;
+
+    // 成功请求（2xx/3xx）的采样比例（0~1）；4xx/5xx、取消与慢请求始终记录
+    private double sampleRate = 0.1;
+
+    // 慢请求阈值（超过则始终记录）
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    // 环形缓冲区容量（向上取2的幂，缓冲区满时丢弃并计数，绝不阻塞事件循环）
+    private int bufferSize = 65536;
+
+    // 后台线程批量写入的间隔
+    private Duration flushInterval = Duration.ofMillis(200);
+}
@@ -0,0 +1,46 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关聚合接口配置（绑定 application.yml 中的 shopease.gateway.aggregation 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.aggregation")
+public class AggregationProperties {
+
+    // 是否启用聚合接口
+    private boolean enabled = true;
+
+    // 聚合接口列表（路径需同时在网关路由中配置，uri 使用 no://op）
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Data
+    public static class Endpoint {
+        // 聚合接口路径（PathPattern 语法，如 /home）
+        private String path;
+
+        // 并行请求的各部分，结果按 name 合并到同一个 Result 中
+        private List<Part> parts = new ArrayList<>();
+    }
+
+    @Data
+    public static class Part {
+        // 结果中的字段名
+        private String name;
+
+        // 下游接口地址（GET，如 lb://shop-ease-good-service/goods/category/tree）
+        private String uri;
+
+        // 该部分的超时时间（超时只影响该部分，其余部分照常返回）
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+}
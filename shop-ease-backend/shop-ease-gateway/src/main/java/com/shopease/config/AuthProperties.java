@@ -0,0 +1,29 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关鉴权配置（绑定 application.yml / Nacos 中的 shopease.gateway.auth 配置，支持动态刷新）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.auth")
+public class AuthProperties {
+
+    // 免登录白名单（PathPattern 语法，如 /sys/user/login、/goods/**、/goods/{id}）
+    private List<String> whiteList = new ArrayList<>(List.of(
+            // 登录、注册接口
+            "/sys/user/login",
+            "/sys/user/register",
+            // 刷新Token接口
+            "/sys/user/refreshToken",
+            // 退出登录接口
+            "/sys/user/logout"
+    ));
+}
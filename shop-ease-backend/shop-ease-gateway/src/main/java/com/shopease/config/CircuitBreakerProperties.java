@@ -0,0 +1,55 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由熔断配置（绑定 application.yml 中的 shopease.gateway.circuit-breaker 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    // 是否启用熔断（每个路由一个熔断器）
+    private boolean enabled = true;
+
+    // 失败率阈值（百分比，统计窗口内失败率达到该值时熔断）
+    private int failureRateThreshold = 50;
+
+    // 慢调用阈值（耗时超过该值的请求按失败计入，下游实例卡死时请求不会报错，只会变慢）
+    private Duration slowCallThreshold = Duration.ofSeconds(3);
+
+    // 按接口配置的慢调用阈值（按顺序匹配，第一条命中的规则生效；AI生成、文件上传等本身耗时较长的接口需单独配置）
+    private List<Rule> routes = new ArrayList<>();
+
+    // 统计窗口内的最少请求数（不足时不熔断，避免低流量时偶发失败触发熔断）
+    private int minimumCalls = 20;
+
+    // 失败率统计窗口
+    private Duration window = Duration.ofSeconds(10);
+
+    // 熔断持续时间（到期后进入半开状态，放行少量探测请求）
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    // 半开状态放行的探测请求数（全部成功后关闭熔断，任一失败重新熔断）
+    private int halfOpenCalls = 5;
+
+    // 熔断时返回的提示
+    private String fallbackMessage = "服务暂时不可用，请稍后重试";
+
+    @Data
+    public static class Rule {
+        // 路径（PathPattern 语法）
+        private String path;
+
+        // 慢调用阈值
+        private Duration slowCallThreshold;
+    }
+}
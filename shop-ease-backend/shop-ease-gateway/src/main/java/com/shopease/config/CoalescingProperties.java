@@ -0,0 +1,28 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 相同请求合并配置（绑定 application.yml 中的 shopease.gateway.coalescing 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.coalescing")
+public class CoalescingProperties {
+
+    // 是否启用相同GET请求合并
+    private boolean enabled = true;
+
+    // 跟随请求等待首个请求响应的最长时间，超时后自行请求下游
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    // 参与合并的路径（PathPattern 语法，仅配置对所有用户返回相同内容的幂等接口）
+    private List<String> routes = new ArrayList<>();
+}
@@ -0,0 +1,39 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 自适应并发限制配置（绑定 application.yml 中的 shopease.gateway.concurrency-limit 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    // 是否启用自适应并发限制（仅作用于 lb:// 路由）
+    private boolean enabled = true;
+
+    // 初始并发上限
+    private int initialLimit = 50;
+
+    // 并发上限的下界
+    private int minLimit = 5;
+
+    // 并发上限的上界
+    private int maxLimit = 500;
+
+    // 允许的延迟放大倍数（当前延迟不超过 基线延迟 × 该倍数 时不降低上限）
+    private double rttTolerance = 1.5;
+
+    // 上限调整的平滑系数（0~1，越大调整越快）
+    private double smoothing = 0.2;
+
+    // 基线延迟的统计窗口（样本数，指数加权平均）
+    private int baselineWindow = 600;
+
+    // 下游失败（5xx、超时、连接异常）时上限的衰减系数
+    private double backoffRatio = 0.9;
+}
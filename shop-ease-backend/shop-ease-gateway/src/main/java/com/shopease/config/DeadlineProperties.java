@@ -0,0 +1,37 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 请求截止时间配置（绑定 application.yml 中的 shopease.gateway.deadline 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.deadline")
+public class DeadlineProperties {
+
+    // 是否启用截止时间（网关超时 + 向下游透传剩余时间）
+    private boolean enabled = true;
+
+    // 默认超时时间（未命中路由规则时使用）
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    // 按接口配置的超时时间（按顺序匹配，第一条命中的规则生效）
+    private List<Rule> routes = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        // 路径（PathPattern 语法）
+        private String path;
+
+        // 超时时间
+        private Duration timeout;
+    }
+}
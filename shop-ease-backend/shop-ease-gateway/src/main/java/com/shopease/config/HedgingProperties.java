@@ -0,0 +1,34 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对冲请求配置（绑定 application.yml 中的 shopease.gateway.hedging 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.hedging")
+public class HedgingProperties {
+
+    // 是否启用对冲请求（仅作用于 lb:// 路由的GET请求）
+    private boolean enabled = false;
+
+    // 对冲延迟下限（路由下游耗时p95低于该值时按该值等待）
+    private Duration minDelay = Duration.ofMillis(10);
+
+    // 计算p95所需的最少样本数（不足时不对冲）
+    private int minSamples = 100;
+
+    // 对冲请求数占请求总数的上限（下游整体变慢时避免流量翻倍）
+    private double budgetRatio = 0.1;
+
+    // 允许对冲的接口（PathPattern 语法，只配置无副作用、不写Cookie的幂等GET接口）
+    private List<String> routes = new ArrayList<>();
+}
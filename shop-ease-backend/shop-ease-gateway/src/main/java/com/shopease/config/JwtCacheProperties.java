@@ -0,0 +1,21 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已验证Token缓存配置（绑定 application.yml 中的 shopease.gateway.jwt-cache 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.jwt-cache")
+public class JwtCacheProperties {
+
+    // 是否启用已验证Token缓存
+    private boolean enabled = true;
+
+    // 最大缓存条目数（超出后按 Caffeine 策略淘汰）
+    private long maxSize = 100_000;
+}
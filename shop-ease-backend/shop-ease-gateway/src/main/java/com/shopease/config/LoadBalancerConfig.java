@@ -0,0 +1,15 @@
+package com.shopease.config;
+
+import com.shopease.loadbalancer.GatewayLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * lb:// 路由的负载均衡配置：所有下游服务默认使用 P2C + 峰值EWMA 负载均衡器，可选一致性哈希
+ * （shopease.gateway.load-balancer.strategy=ROUND_ROBIN 时回退为 Spring Cloud 默认轮询）
+ * @author hspcadmin
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = GatewayLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
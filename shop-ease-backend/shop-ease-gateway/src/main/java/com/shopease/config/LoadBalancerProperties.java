@@ -0,0 +1,66 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关负载均衡配置（绑定 application.yml 中的 shopease.gateway.load-balancer 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    // 负载均衡策略：P2C（按延迟与在途请求数二选一）、ROUND_ROBIN（Spring Cloud 默认轮询）
+    private Strategy strategy = Strategy.P2C;
+
+    // 延迟指数加权平均的衰减时间（越小越快反映实例最新延迟）
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    // 尚无延迟样本的实例的初始延迟估计
+    private Duration initialLatency = Duration.ofMillis(20);
+
+    // 请求失败（连接异常、5xx）时按该延迟计入样本，使流量尽快离开故障实例
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    // 一致性哈希路由（按请求Key固定到实例，提升下游进程内缓存命中率）
+    private ConsistentHash consistentHash = new ConsistentHash();
+
+    public enum Strategy {
+        P2C,
+        ROUND_ROBIN
+    }
+
+    @Data
+    public static class ConsistentHash {
+        // 是否启用；未命中规则的请求仍按 strategy 负载均衡
+        private boolean enabled = false;
+
+        // 每个实例的虚拟节点数
+        private int virtualNodes = 160;
+
+        // 有界负载系数：单个实例在途请求数不超过 平均值 × 该系数，热点Key会溢出到环上的下一个实例
+        private double loadFactor = 1.25;
+
+        // 按Key路由的接口（按顺序匹配，第一条命中的规则生效）
+        private List<Rule> routes = new ArrayList<>();
+    }
+
+    @Data
+    public static class Rule {
+        // 路径（PathPattern 语法，如 /goods/{id}）
+        private String path;
+
+        // 取路径变量作为Key（如 id）
+        private String variable;
+
+        // 取请求头作为Key（如 X-ShopEase-User-Id），未配置 variable 时生效
+        private String header;
+    }
+}
@@ -0,0 +1,31 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关本地静态文件配置（绑定 application.yml 中的 shopease.gateway.local-files 配置）
+ * <p>
+ * 网关与 user-service 共享上传目录（同机部署或挂载同一存储）时，/upload/** 由网关直接读盘返回。
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.local-files")
+public class LocalFileProperties {
+
+    // 是否由网关直接返回本地文件（网关无法访问上传目录时保持关闭，仍转发到 user-service）
+    private boolean enabled = false;
+
+    // 上传根目录（与 user-service 的 local-storage.root-dir 一致）
+    private String rootDir;
+
+    // 访问前缀（与 user-service 的 local-storage.access-prefix 一致）
+    private String accessPrefix = "/upload/";
+
+    // 浏览器缓存时间（Cache-Control: max-age）
+    private Duration cacheMaxAge = Duration.ofHours(1);
+}
@@ -0,0 +1,60 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关限流配置（绑定 application.yml 中的 shopease.gateway.rate-limit 配置）
+ * <p>
+ * 令牌桶按 用户ID（已登录）或 客户端IP（白名单接口）区分；每个接口消耗的令牌数可单独配置，
+ * 配置了独立速率的接口使用独立的令牌桶，其余接口共享默认令牌桶。
+ *
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.rate-limit")
+public class RateLimitProperties {
+
+    // 是否启用限流
+    private boolean enabled = true;
+
+    // 限流模式：LOCAL（单机内存，无锁）、REDIS（多网关共享，Lua脚本）
+    private Mode mode = Mode.LOCAL;
+
+    // 默认令牌桶：每秒补充的令牌数
+    private double replenishRate = 20;
+
+    // 默认令牌桶：桶容量（允许的突发令牌数）
+    private int burstCapacity = 40;
+
+    // 单机模式最多保留的令牌桶数量（超出后淘汰最久未访问的）
+    private long maxBuckets = 100_000;
+
+    // 按接口配置的令牌消耗（按顺序匹配，第一条命中的规则生效）
+    private List<Rule> routes = new ArrayList<>();
+
+    public enum Mode {
+        LOCAL,
+        REDIS
+    }
+
+    @Data
+    public static class Rule {
+        // 路径（PathPattern 语法）
+        private String path;
+
+        // 每次请求消耗的令牌数（不能超过桶容量）
+        private int cost = 1;
+
+        // 独立令牌桶的每秒补充令牌数（为空时使用默认令牌桶）
+        private Double replenishRate;
+
+        // 独立令牌桶的容量（为空时与默认令牌桶相同）
+        private Integer burstCapacity;
+    }
+}
@@ -0,0 +1,40 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关响应缓存配置（绑定 application.yml 中的 shopease.gateway.response-cache 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.response-cache")
+public class ResponseCacheProperties {
+
+    // 是否启用响应缓存
+    private boolean enabled = true;
+
+    // 内存缓存总容量上限（字节，按响应体大小淘汰）
+    private long maxBytes = 64L * 1024 * 1024;
+
+    // 单个响应体大小上限（字节，超出不缓存）
+    private int maxBodyBytes = 512 * 1024;
+
+    // 需要缓存的GET接口（按顺序匹配，第一条命中的规则生效）
+    private List<Rule> routes = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        // 路径（PathPattern 语法，如 /goods/{id}）
+        private String path;
+
+        // 缓存时间
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
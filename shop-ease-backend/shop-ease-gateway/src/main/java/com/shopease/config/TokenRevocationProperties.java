@@ -0,0 +1,33 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 已吊销Token配置（绑定 application.yml 中的 shopease.gateway.token-revocation 配置）
+ * <p>
+ * user-service 修改密码、退出登录时通过 Redis 发布吊销消息，网关在内存中保存吊销记录，
+ * 鉴权时本地判断，不增加 Redis 往返。
+ *
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.token-revocation")
+public class TokenRevocationProperties {
+
+    // 是否启用Token吊销校验（订阅 Redis 吊销频道）
+    private boolean enabled = true;
+
+    // 布隆过滤器预期的吊销记录数（超出后误判率上升，仍由精确集合兜底）
+    private int expectedInsertions = 100_000;
+
+    // 布隆过滤器误判率
+    private double falsePositiveRate = 0.01;
+
+    // 与 Redis 快照对账的间隔（补齐网关断线期间丢失的发布消息，并清理过期记录）
+    private Duration resyncInterval = Duration.ofSeconds(60);
+}
@@ -0,0 +1,70 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关等候室配置（绑定 application.yml 中的 shopease.gateway.waiting-room 配置）
+ * <p>
+ * 大促期间个别商品流量激增时，为配置的接口（或指定商品）开启排队：超出放行速率的请求不再转发到下游，
+ * 而是返回排队号和轮询间隔，按先到先得的顺序以固定速率放行。
+ *
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.gateway.waiting-room")
+public class WaitingRoomProperties {
+
+    // 是否启用等候室
+    private boolean enabled = false;
+
+    // 排队状态存储：LOCAL（单机内存）、REDIS（多网关共享排队顺序，Lua脚本）
+    private Mode mode = Mode.LOCAL;
+
+    // 建议客户端轮询间隔（Retry-After）
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    // 排队号有效期：超过该时间未轮询视为离开队列
+    private Duration ticketTtl = Duration.ofMinutes(2);
+
+    // 放行有效期：放行后该时间内的请求直接通过，过期后重新排队
+    private Duration passTtl = Duration.ofMinutes(10);
+
+    // 单机模式最多保留的排队号数量
+    private long maxTickets = 1_000_000;
+
+    // 等候室列表（按顺序匹配，第一条命中的规则生效）
+    private List<Room> rooms = new ArrayList<>();
+
+    public enum Mode {
+        LOCAL,
+        REDIS
+    }
+
+    @Data
+    public static class Room {
+        // 等候室名称（指标与Redis Key使用）
+        private String name;
+
+        // 路径（PathPattern 语法）
+        private String path;
+
+        // 按路径变量分别排队（如 id：每个商品一个队列），为空时整个接口一个队列
+        private String variable;
+
+        // 仅对这些路径变量值排队（如大促商品ID），为空时该接口全部排队
+        private List<String> ids = new ArrayList<>();
+
+        // 每秒放行人数
+        private double rate = 100;
+
+        // 允许的突发放行人数（为空时等于每秒放行人数）
+        private Integer burst;
+    }
+}
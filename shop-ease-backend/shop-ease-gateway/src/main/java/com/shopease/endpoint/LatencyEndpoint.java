@@ -0,0 +1,100 @@
+package com.shopease.endpoint;
+
+import com.shopease.utils.GatewayMetrics;
+import com.shopease.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关延迟汇总端点
+ * <p>
+ * GET /actuator/latency  按路由汇总最近1分钟的延迟分位数（毫秒）：
+ * 各状态码的总耗时、下游耗时（upstream）、网关内部耗时（internal）、请求/响应字节数，以及JWT验签耗时
+ *
+ * @author hspcadmin
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final GatewayMetrics gatewayMetrics;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public LatencyEndpoint(GatewayMetrics gatewayMetrics, VerifiedTokenCache verifiedTokenCache) {
+        this.gatewayMetrics = gatewayMetrics;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        Map<String, Map<String, Object>> routes = new TreeMap<>();
+        gatewayMetrics.routes().forEach((routeId, metrics) -> {
+            Map<String, Object> route = route(routes, routeId);
+            metrics.requestTimers().forEach((status, timer) -> route.put(status, timer(timer)));
+            if (metrics.upstream() != null) {
+                route.put("upstream", timer(metrics.upstream()));
+            }
+            if (metrics.internal() != null) {
+                route.put("internal", timer(metrics.internal()));
+            }
+            route.put("bytesIn", summary(metrics.requestBytes()));
+            route.put("bytesOut", summary(metrics.responseBytes()));
+        });
+
+        Map<String, Object> jwt = new TreeMap<>();
+        verifiedTokenCache.verifyTimers().forEach((result, timer) -> jwt.put(result, timer(timer)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("routes", routes);
+        result.put("jwt", jwt);
+        return result;
+    }
+
+    private static Map<String, Object> route(Map<String, Map<String, Object>> routes, String route) {
+        return routes.computeIfAbsent(route, k -> new TreeMap<>());
+    }
+
+    private static Map<String, Object> timer(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", snapshot.count());
+        stats.put("mean", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            stats.put(label(percentile.percentile()), round(percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        stats.put("max", round(snapshot.max(TimeUnit.MILLISECONDS)));
+        return stats;
+    }
+
+    private static Map<String, Object> summary(DistributionSummary summary) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", summary.count());
+        stats.put("total", (long) summary.totalAmount());
+        stats.put("mean", round(summary.mean()));
+        return stats;
+    }
+
+    /**
+     * 分位数标签：0.5 -> p50，0.99 -> p99，0.999 -> p999
+     */
+    private static String label(double percentile) {
+        return "p" + new BigDecimal(String.valueOf(percentile)).movePointRight(2)
+                .stripTrailingZeros().toPlainString().replace(".", "");
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
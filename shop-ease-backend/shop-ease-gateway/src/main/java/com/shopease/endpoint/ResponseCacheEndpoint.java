@@ -0,0 +1,43 @@
+package com.shopease.endpoint;
+
+import com.shopease.utils.ResponseCacheStore;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 网关响应缓存管理端点
+ * <p>
+ * GET    /actuator/responsecache                    查看缓存条目数、占用字节数（仅在内网管理端口 management.server.port 上提供）
+ * DELETE /actuator/responsecache?pathPrefix=/goods/1 按路径前缀清除缓存（不传则清除全部）
+ *
+ * @author hspcadmin
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final ResponseCacheStore store;
+
+    public ResponseCacheEndpoint(ResponseCacheStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return Map.of(
+                "entries", store.size(),
+                "bytes", store.weightedSize()
+        );
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable String pathPrefix) {
+        long removed = store.purge(pathPrefix);
+        return Map.of("purged", removed);
+    }
+}
@@ -0,0 +1,103 @@
+package com.shopease.filter;
+
+import com.shopease.config.AccessLogProperties;
+import com.shopease.utils.AccessLogWriter;
+import com.shopease.utils.AccessLogWriter.AccessLogRecord;
+import com.shopease.utils.ByteCountingRequestDecorator;
+import com.shopease.utils.ByteCountingResponseDecorator;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 访问日志过滤器
+ * <p>
+ * 请求结束时生成一条访问日志记录交给 {@link AccessLogWriter} 异步写入，事件循环线程上不做格式化与IO。
+ * 成功请求按 sample-rate 采样，4xx/5xx、取消与慢请求（超过 slow-threshold）始终记录。
+ * 字节数与下游耗时复用 {@link RequestMetricsFilter} 的统计。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    private final AccessLogProperties properties;
+
+    private final AccessLogWriter accessLogWriter;
+
+    public AccessLogFilter(AccessLogProperties properties, AccessLogWriter accessLogWriter) {
+        this.properties = properties;
+        this.accessLogWriter = accessLogWriter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    long durationNanos = System.nanoTime() - start;
+                    String status = RequestMetricsFilter.status(exchange, signal);
+                    if (shouldLog(status, durationNanos)) {
+                        accessLogWriter.append(record(exchange, startMillis, status, durationNanos));
+                    }
+                });
+    }
+
+    /**
+     * 成功请求按比例采样；错误、取消、慢请求始终记录
+     */
+    private boolean shouldLog(String status, long durationNanos) {
+        if (durationNanos >= properties.getSlowThreshold().toNanos()) {
+            return true;
+        }
+        if (status.length() != 3 || status.charAt(0) >= '4') {
+            return true;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private AccessLogRecord record(ServerWebExchange exchange, long startMillis, String status, long durationNanos) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        AtomicLong upstreamNanos = exchange.getAttribute(RequestMetricsFilter.UPSTREAM_NANOS_ATTR);
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return new AccessLogRecord(
+                startMillis,
+                request.getMethod().name(),
+                request.getPath().value(),
+                status,
+                route == null ? null : route.getId(),
+                TimeUnit.NANOSECONDS.toMicros(durationNanos),
+                upstreamNanos == null || upstreamNanos.get() < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(upstreamNanos.get()),
+                request instanceof ByteCountingRequestDecorator counting ? counting.getBytes() : -1,
+                response instanceof ByteCountingResponseDecorator counting ? counting.getBytes() : -1,
+                remoteAddress == null || remoteAddress.getAddress() == null ? null : remoteAddress.getAddress().getHostAddress(),
+                exchange.getAttribute(JwtAuthFilter.USER_ID_ATTR));
+    }
+
+    /**
+     * 在请求指标过滤器（-200）之内执行，以便读取其统计的字节数与下游耗时
+     */
+    @Override
+    public int getOrder() {
+        return -190;
+    }
+}
@@ -0,0 +1,271 @@
+package com.shopease.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopease.config.AggregationProperties;
+import com.shopease.config.ResponseCacheProperties;
+import com.shopease.constans.Constant;
+import com.shopease.result.Result;
+import com.shopease.utils.BufferedResponse;
+import com.shopease.utils.GatewayErrorWriter;
+import com.shopease.utils.PathRules;
+import com.shopease.utils.RequestKeys;
+import com.shopease.utils.ResponseCacheStore;
+import com.shopease.utils.ResponseCacheStore.CachedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 聚合接口过滤器（如 App 首页 /home）
+ * <p>
+ * 一次请求并行调用多个下游接口（分类树、首页商品、当前用户等），把各部分的 data 按配置的 name 合并到同一个 Result 中，
+ * 移动网络下省去多次往返。各部分独立超时：某一部分失败或超时时该字段为 null，并列入 degraded，其余部分照常返回；
+ * 全部失败时返回 503。
+ * 子请求透传网关已验证的身份请求头，并复用网关响应缓存（与直接访问 /goods/list 等接口共享缓存条目）。
+ * 指标：gateway.aggregation.parts{part, result=ok|cached|failed|timeout}
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class AggregationFilter implements GlobalFilter, Ordered {
+
+    private static final String LOAD_BALANCER_SCHEME = "lb";
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final AggregationProperties properties;
+
+    private final ResponseCacheProperties responseCacheProperties;
+
+    private final ResponseCacheStore responseCacheStore;
+
+    private final GatewayErrorWriter gatewayErrorWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final WebClient webClient;
+
+    private volatile PathRules<AggregationProperties.Endpoint> rules;
+
+    private volatile PathRules<ResponseCacheProperties.Rule> cacheRules;
+
+    public AggregationFilter(AggregationProperties properties, ResponseCacheProperties responseCacheProperties,
+                             ResponseCacheStore responseCacheStore, GatewayErrorWriter gatewayErrorWriter,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry, WebClient.Builder webClientBuilder,
+                             LoadBalancedExchangeFilterFunction loadBalancerFunction) {
+        this.properties = properties;
+        this.responseCacheProperties = responseCacheProperties;
+        this.responseCacheStore = responseCacheStore;
+        this.gatewayErrorWriter = gatewayErrorWriter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+        this.rules = PathRules.compile(properties.getEndpoints(), AggregationProperties.Endpoint::getPath);
+        this.cacheRules = PathRules.compile(responseCacheProperties.getRoutes(), ResponseCacheProperties.Rule::getPath);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        AggregationProperties.Endpoint endpoint = rules().match(request.getPath().pathWithinApplication());
+        if (endpoint == null || endpoint.getParts().isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 并行请求各部分（每部分的超时不超过网关剩余的截止时间）
+        long remainingMillis = remainingMillis(request);
+        List<Mono<PartResult>> calls = new ArrayList<>(endpoint.getParts().size());
+        for (AggregationProperties.Part part : endpoint.getParts()) {
+            calls.add(fetch(part, request, Math.min(part.getTimeout().toMillis(), remainingMillis))
+                    .doOnNext(result -> meterRegistry.counter("gateway.aggregation.parts",
+                            "part", part.getName(), "result", result.result()).increment()));
+        }
+
+        // 2. 合并结果：失败的部分置为 null 并列入 degraded
+        return Mono.zip(calls, results -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            List<String> degraded = new ArrayList<>();
+            for (Object item : results) {
+                PartResult result = (PartResult) item;
+                data.put(result.name(), result.data());
+                if (result.data() == null) {
+                    degraded.add(result.name());
+                }
+            }
+            data.put("degraded", degraded);
+            return data;
+        }).flatMap(data -> {
+            @SuppressWarnings("unchecked")
+            List<String> degraded = (List<String>) data.get("degraded");
+            if (degraded.size() == endpoint.getParts().size()) {
+                return gatewayErrorWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, GatewayErrorWriter.SERVICE_UNAVAILABLE);
+            }
+            return write(exchange.getResponse(), degraded.isEmpty() ? Result.success(data) : Result.success(data, "部分数据加载失败"));
+        });
+    }
+
+    /**
+     * 请求聚合接口的一部分：命中网关响应缓存时直接使用，否则调用下游
+     */
+    private Mono<PartResult> fetch(AggregationProperties.Part part, ServerHttpRequest request, long timeoutMillis) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(part.getUri()).build();
+        ResponseCacheProperties.Rule cacheRule = responseCacheProperties.isEnabled()
+                ? cacheRules().match(PathContainer.parsePath(uri.getPath())) : null;
+        String cacheKey = RequestKeys.normalized(HttpMethod.GET, uri.getPath(), uri.getQueryParams());
+        if (cacheRule != null) {
+            CachedResponse cached = responseCacheStore.get(cacheKey);
+            if (cached != null) {
+                return Mono.just(toResult(part, cached.response().body(), "cached"));
+            }
+        }
+
+        // lb://服务名 按负载均衡的 http://服务名 请求
+        URI target = LOAD_BALANCER_SCHEME.equals(uri.getScheme())
+                ? UriComponentsBuilder.newInstance().uriComponents(uri).scheme("http").build().toUri() : uri.toUri();
+        long startMillis = System.currentTimeMillis();
+        return webClient.get()
+                .uri(target)
+                .headers(headers -> {
+                    copyHeader(request, headers, HttpHeaders.AUTHORIZATION);
+                    copyHeader(request, headers, Constant.USER_ID_HEADER);
+                    copyHeader(request, headers, Constant.USERNAME_HEADER);
+                    copyHeader(request, headers, Constant.IDENTITY_SIGNATURE_HEADER);
+                    headers.set(Constant.TIMEOUT_HEADER, String.valueOf(timeoutMillis));
+                })
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(EMPTY_BODY)
+                        .map(body -> BufferedResponse.of(response.statusCode().value(), response.headers().asHttpHeaders(), body)))
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .map(response -> {
+                    PartResult result = toResult(part, response.status() == HttpStatus.OK.value() ? response.body() : EMPTY_BODY, "ok");
+                    if (result.data() != null && cacheRule != null
+                            && response.body().length <= responseCacheProperties.getMaxBodyBytes()) {
+                        responseCacheStore.put(cacheKey, new CachedResponse(response, startMillis, cacheRule.getTtl()));
+                    }
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    boolean timeout = e instanceof TimeoutException;
+                    log.warn("聚合接口子请求失败，part：{}，uri：{}，原因：{}", part.getName(), part.getUri(),
+                            timeout ? "超时" : e.getMessage());
+                    return Mono.just(new PartResult(part.getName(), null, timeout ? "timeout" : "failed"));
+                });
+    }
+
+    /**
+     * 解析下游响应：业务码为 200 时取出 data，否则视为该部分失败
+     */
+    private PartResult toResult(AggregationProperties.Part part, byte[] body, String result) {
+        try {
+            JsonNode root = body.length == 0 ? null : objectMapper.readTree(body);
+            if (root != null && root.path("code").asInt() == Constant.SUCCESS_CODE) {
+                return new PartResult(part.getName(), root.path("data"), result);
+            }
+        } catch (Exception e) {
+            log.warn("聚合接口子请求响应解析失败，part：{}", part.getName());
+        }
+        return new PartResult(part.getName(), null, "failed");
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, Result<Map<String, Object>> result) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(result);
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(bytes.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static void copyHeader(ServerHttpRequest request, HttpHeaders target, String name) {
+        String value = request.getHeaders().getFirst(name);
+        if (value != null) {
+            target.set(name, value);
+        }
+    }
+
+    /**
+     * 网关剩余的截止时间（毫秒，见 {@link DeadlineFilter}）
+     */
+    private static long remainingMillis(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(Constant.TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                return Math.max(1, Long.parseLong(header.trim()));
+            } catch (NumberFormatException ignored) {
+                // 忽略格式错误的请求头，按各部分自身的超时执行
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private PathRules<AggregationProperties.Endpoint> rules() {
+        PathRules<AggregationProperties.Endpoint> current = rules;
+        if (!current.isCompiledFrom(properties.getEndpoints())) {
+            current = PathRules.compile(properties.getEndpoints(), AggregationProperties.Endpoint::getPath);
+            rules = current;
+        }
+        return current;
+    }
+
+    private PathRules<ResponseCacheProperties.Rule> cacheRules() {
+        PathRules<ResponseCacheProperties.Rule> current = cacheRules;
+        if (!current.isCompiledFrom(responseCacheProperties.getRoutes())) {
+            current = PathRules.compile(responseCacheProperties.getRoutes(), ResponseCacheProperties.Rule::getPath);
+            cacheRules = current;
+        }
+        return current;
+    }
+
+    /**
+     * 聚合接口的一部分结果
+     *
+     * @param name   字段名
+     * @param data   下游返回的 data（失败时为null）
+     * @param result 结果（ok / cached / failed / timeout，用于指标）
+     */
+    private record PartResult(String name, JsonNode data, String result) {
+    }
+
+    /**
+     * 在鉴权（-100）、限流（-90）、响应缓存（-80）之后执行，聚合接口不转发，由网关直接返回
+     */
+    @Override
+    public int getOrder() {
+        return -75;
+    }
+}
@@ -0,0 +1,135 @@
+package com.shopease.filter;
+
+import com.shopease.config.CircuitBreakerProperties;
+import com.shopease.utils.CircuitBreaker;
+import com.shopease.utils.GatewayErrorWriter;
+import com.shopease.utils.PathRules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 路由熔断过滤器
+ * <p>
+ * 每个路由一个熔断器（见 {@link CircuitBreaker}）：下游持续报错或卡死（慢调用）时熔断，
+ * 熔断期间直接返回 503 和统一格式的提示，不再占用连接等待超时。
+ * 只统计真正转发到下游的请求，网关自身拒绝（限流、并发限制）的请求不计入失败率。
+ * 慢调用阈值可按接口配置（routes），本身耗时较长的接口（AI生成、头像上传）不会因正常耗时被计为失败。
+ * 指标：gateway.circuit.state{route}（0关闭/1打开/2半开）、gateway.circuit.opened{route}、
+ * gateway.circuit.rejected{route}
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class CircuitBreakerFilter implements GlobalFilter, Ordered {
+
+    private final CircuitBreakerProperties properties;
+
+    private final GatewayErrorWriter gatewayErrorWriter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, RouteBreaker> breakers = new ConcurrentHashMap<>();
+
+    private volatile PathRules<CircuitBreakerProperties.Rule> rules;
+
+    public CircuitBreakerFilter(CircuitBreakerProperties properties, GatewayErrorWriter gatewayErrorWriter,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.gatewayErrorWriter = gatewayErrorWriter;
+        this.meterRegistry = meterRegistry;
+        this.rules = PathRules.compile(properties.getRoutes(), CircuitBreakerProperties.Rule::getPath);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 熔断中，快速失败
+        RouteBreaker routeBreaker = breakers.computeIfAbsent(route.getId(), this::createBreaker);
+        CircuitBreaker breaker = routeBreaker.breaker();
+        if (!breaker.tryAcquire()) {
+            routeBreaker.rejected().increment();
+            return gatewayErrorWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, properties.getFallbackMessage());
+        }
+
+        // 2. 转发下游，按结果更新失败率（慢调用阈值按接口匹配）
+        CircuitBreakerProperties.Rule rule = rules().match(exchange.getRequest().getPath().pathWithinApplication());
+        long slowCallNanos = (rule == null || rule.getSlowCallThreshold() == null
+                ? properties.getSlowCallThreshold() : rule.getSlowCallThreshold()).toNanos();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (!ServerWebExchangeUtils.isAlreadyRouted(exchange)) {
+                        breaker.release();
+                        return;
+                    }
+                    boolean slow = System.nanoTime() - start >= slowCallNanos;
+                    if (signal == SignalType.CANCEL) {
+                        // 取消（网关超时、客户端断开）只有在已经是慢调用时才算失败
+                        if (slow) {
+                            breaker.onResult(true);
+                        } else {
+                            breaker.release();
+                        }
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    breaker.onResult(slow || signal == SignalType.ON_ERROR
+                            || (status != null && status.is5xxServerError()));
+                });
+    }
+
+    private PathRules<CircuitBreakerProperties.Rule> rules() {
+        PathRules<CircuitBreakerProperties.Rule> current = rules;
+        if (!current.isCompiledFrom(properties.getRoutes())) {
+            current = PathRules.compile(properties.getRoutes(), CircuitBreakerProperties.Rule::getPath);
+            rules = current;
+        }
+        return current;
+    }
+
+    private RouteBreaker createBreaker(String routeId) {
+        Counter opened = meterRegistry.counter("gateway.circuit.opened", "route", routeId);
+        Counter rejected = meterRegistry.counter("gateway.circuit.rejected", "route", routeId);
+        CircuitBreaker breaker = new CircuitBreaker(properties, () -> {
+            opened.increment();
+            log.warn("路由{}下游失败率过高，熔断{}秒", routeId, properties.getOpenDuration().toSeconds());
+        });
+        Gauge.builder("gateway.circuit.state", breaker, b -> b.getState().ordinal())
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return new RouteBreaker(breaker, rejected);
+    }
+
+    private record RouteBreaker(CircuitBreaker breaker, Counter rejected) {
+    }
+
+    /**
+     * 在本地文件（-65）之后、对冲请求（-62）与并发限制（-60）之前执行：
+     * 熔断时不占用并发名额，对冲请求整体计为一次调用
+     */
+    @Override
+    public int getOrder() {
+        return -63;
+    }
+}
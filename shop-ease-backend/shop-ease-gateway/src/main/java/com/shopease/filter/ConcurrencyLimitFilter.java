@@ -0,0 +1,112 @@
+package com.shopease.filter;
+
+import com.shopease.config.ConcurrencyLimitProperties;
+import com.shopease.utils.AdaptiveConcurrencyLimit;
+import com.shopease.utils.GatewayErrorWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应并发限制过滤器（按 lb:// 路由）
+ * <p>
+ * 每个路由维护一个根据下游延迟自动调整的并发上限（见 {@link AdaptiveConcurrencyLimit}），
+ * 下游变慢时上限下降，超出上限的请求直接返回 503，不再排队等待下游。
+ * 延迟取下游耗时（发起转发至收到响应头，见 {@link UpstreamTimingFilter}），不包含向客户端写出响应体的时间，
+ * 慢速客户端不会拉低上限；耗时差异很大的接口（AI生成、头像上传）配置为独立路由，各自维护上限。
+ * 指标：gateway.concurrency.limit{route}、gateway.concurrency.in_flight{route}、
+ * gateway.concurrency.rejected{route}
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private static final String LOAD_BALANCER_SCHEME = "lb";
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final GatewayErrorWriter gatewayErrorWriter;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, GatewayErrorWriter gatewayErrorWriter,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.gatewayErrorWriter = gatewayErrorWriter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || !LOAD_BALANCER_SCHEME.equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 超出并发上限，快速拒绝
+        RouteLimit routeLimit = limits.computeIfAbsent(route.getId(), this::createLimit);
+        if (!routeLimit.limit().tryAcquire()) {
+            routeLimit.rejected().increment();
+            log.debug("路由{}并发已达上限{}，拒绝请求", route.getId(), routeLimit.limit().getLimit());
+            return gatewayErrorWriter.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, GatewayErrorWriter.SERVICE_BUSY);
+        }
+
+        // 2. 转发下游，完成后按下游耗时调整上限（未转发到下游时耗时为 -1，只在失败时降低上限）
+        AtomicLong upstreamNanos = exchange.getAttribute(RequestMetricsFilter.UPSTREAM_NANOS_ATTR);
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        routeLimit.limit().cancel();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    long rttNanos = upstreamNanos == null ? System.nanoTime() - start : upstreamNanos.get();
+                    routeLimit.limit().release(rttNanos, dropped);
+                });
+    }
+
+    private RouteLimit createLimit(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties);
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Counter rejected = meterRegistry.counter("gateway.concurrency.rejected", "route", routeId);
+        return new RouteLimit(limit, rejected);
+    }
+
+    private record RouteLimit(AdaptiveConcurrencyLimit limit, Counter rejected) {
+    }
+
+    /**
+     * 在响应缓存（-80）、请求合并（-70）之后执行，命中缓存或合并的请求不占用下游并发名额
+     */
+    @Override
+    public int getOrder() {
+        return -60;
+    }
+}
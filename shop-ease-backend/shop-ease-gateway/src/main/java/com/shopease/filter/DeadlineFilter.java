@@ -0,0 +1,111 @@
+package com.shopease.filter;
+
+import com.shopease.config.DeadlineProperties;
+import com.shopease.constans.Constant;
+import com.shopease.utils.GatewayErrorWriter;
+import com.shopease.utils.PathRules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 请求截止时间过滤器
+ * <p>
+ * 超时时间取 路由配置 与 客户端请求头 X-ShopEase-Timeout（毫秒）中的较小值：
+ * 绝对截止时间写入 {@link #DEADLINE_NANOS_ATTR}，由 {@link DeadlineHeaderFilter} 在每次转发前换算为剩余时间透传给下游，
+ * 并只对 转发至收到下游响应头 计时：截止时间到达时取消下游请求，由本过滤器返回 504；
+ * 响应头到达后向客户端写出响应体不受截止时间限制（慢速网络下载大图片、长列表不会被中途断开）。
+ * 下游服务据此跳过已无意义的工作（见 shop-ease-common 的 DeadlineServletFilter）。
+ * 指标：gateway.deadline.exceeded
+ *
+ * @author hspcadmin
+ */
+@Component
+public class DeadlineFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 请求的绝对截止时间（System.nanoTime() 基准）
+     */
+    public static final String DEADLINE_NANOS_ATTR = DeadlineFilter.class.getName() + ".deadlineNanos";
+
+    private final DeadlineProperties properties;
+
+    private final GatewayErrorWriter gatewayErrorWriter;
+
+    private final Counter exceededCounter;
+
+    private volatile PathRules<DeadlineProperties.Rule> rules;
+
+    public DeadlineFilter(DeadlineProperties properties, GatewayErrorWriter gatewayErrorWriter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.gatewayErrorWriter = gatewayErrorWriter;
+        this.rules = PathRules.compile(properties.getRoutes(), DeadlineProperties.Rule::getPath);
+        this.exceededCounter = meterRegistry.counter("gateway.deadline.exceeded");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+
+        // 1. 计算超时时间：路由配置与客户端要求取较小值
+        DeadlineProperties.Rule rule = rules().match(request.getPath().pathWithinApplication());
+        long timeoutMillis = (rule == null || rule.getTimeout() == null ? properties.getDefaultTimeout() : rule.getTimeout()).toMillis();
+        Long clientTimeout = parseTimeout(request.getHeaders().getFirst(Constant.TIMEOUT_HEADER));
+        if (clientTimeout != null && clientTimeout > 0) {
+            timeoutMillis = Math.min(timeoutMillis, clientTimeout);
+        }
+
+        // 2. 记录绝对截止时间，剩余时间由 DeadlineHeaderFilter 在真正转发时计算（扣除网关内排队、鉴权、对冲等待等耗时）
+        exchange.getAttributes().put(DEADLINE_NANOS_ATTR, System.nanoTime() + timeoutMillis * 1_000_000);
+
+        // 3. 转发前已超时或等待下游响应头超时（DeadlineHeaderFilter 抛出 TimeoutException）时返回 504
+        return chain.filter(exchange)
+                .onErrorResume(TimeoutException.class, e -> {
+                    exceededCounter.increment();
+                    if (exchange.getResponse().isCommitted()) {
+                        return Mono.error(e);
+                    }
+                    return gatewayErrorWriter.write(exchange, HttpStatus.GATEWAY_TIMEOUT, GatewayErrorWriter.TIMEOUT);
+                });
+    }
+
+    private static Long parseTimeout(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private PathRules<DeadlineProperties.Rule> rules() {
+        PathRules<DeadlineProperties.Rule> current = rules;
+        if (!current.isCompiledFrom(properties.getRoutes())) {
+            current = PathRules.compile(properties.getRoutes(), DeadlineProperties.Rule::getPath);
+            rules = current;
+        }
+        return current;
+    }
+
+    /**
+     * 在访问日志与指标（-200/-190）之内、鉴权（-100）之前执行，截止时间从网关收到请求开始计算
+     */
+    @Override
+    public int getOrder() {
+        return -150;
+    }
+}
@@ -0,0 +1,53 @@
+package com.shopease.filter;
+
+import com.shopease.constans.Constant;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 截止时间转发过滤器
+ * <p>
+ * 紧挨转发过滤器（NettyRoutingFilter）之前执行，按 {@link DeadlineFilter#DEADLINE_NANOS_ATTR}
+ * 计算此刻的剩余时间写入 X-ShopEase-Timeout（毫秒），每次转发（包括对冲请求）各自携带真实剩余时间；
+ * 同时以剩余时间限制等待下游响应头的时间（NettyRoutingFilter 在收到响应头时完成，响应体的写出不在计时范围内），
+ * 超时或转发前已无剩余时间时抛出 {@link TimeoutException}，由 {@link DeadlineFilter} 返回 504。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class DeadlineHeaderFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Long deadlineNanos = exchange.getAttribute(DeadlineFilter.DEADLINE_NANOS_ATTR);
+        if (deadlineNanos == null) {
+            return chain.filter(exchange);
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            return Mono.error(new TimeoutException("请求截止时间已过，不再转发"));
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> headers.set(Constant.TIMEOUT_HEADER, String.valueOf(remainingNanos / 1_000_000)))
+                .build();
+        return chain.filter(exchange.mutate().request(request).build())
+                .timeout(Duration.ofNanos(remainingNanos));
+    }
+
+    /**
+     * 在 UpstreamTimingFilter 之前，使下游耗时不包含请求头改写
+     */
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 2;
+    }
+}
@@ -0,0 +1,321 @@
+package com.shopease.filter;
+
+import com.shopease.config.HedgingProperties;
+import com.shopease.loadbalancer.ExcludedInstance;
+import com.shopease.utils.BufferingServerHttpResponse;
+import com.shopease.utils.GatewayMetrics;
+import com.shopease.utils.PathRules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 对冲请求过滤器（幂等GET接口）
+ * <p>
+ * 首次请求超过该路由下游耗时的p95仍未返回时，向另一个实例再发一次相同请求，先成功（非5xx）的响应写回客户端，
+ * 另一个请求随即取消。少数卡顿实例造成的长尾延迟由此被另一个实例兜住。
+ * 两次请求各自使用独立的交换属性与缓冲响应（见 {@link BufferingServerHttpResponse}），胜出的一次再写回客户端；
+ * 对冲请求数受 budget-ratio 限制，下游整体变慢时不会让流量翻倍。
+ * 指标：gateway.hedge.requests{route}（发出的对冲请求）、gateway.hedge.wins{route}（对冲请求先返回）、
+ * gateway.hedge.delay{route}（当前对冲延迟，毫秒）
+ *
+ * @author hspcadmin
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private static final String LOAD_BALANCER_SCHEME = "lb";
+
+    // 对冲延迟所用的下游耗时分位数
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    // 对冲延迟的刷新间隔（从直方图快照计算p95）
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // 对冲预算的计量单位（一次对冲消耗一个单位，最多积攒10次）
+    private static final long BUDGET_UNIT = 1000;
+
+    private static final long BUDGET_MAX = 10 * BUDGET_UNIT;
+
+    private final HedgingProperties properties;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, RouteHedge> hedges = new ConcurrentHashMap<>();
+
+    private volatile PathRules<String> rules;
+
+    public HedgingFilter(HedgingProperties properties, GatewayMetrics gatewayMetrics, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.gatewayMetrics = gatewayMetrics;
+        this.meterRegistry = meterRegistry;
+        this.rules = PathRules.compile(properties.getRoutes(), Function.identity());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET || route == null
+                || !LOAD_BALANCER_SCHEME.equals(route.getUri().getScheme())
+                || rules().match(request.getPath().pathWithinApplication()) == null) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 下游耗时样本不足时不对冲，直接转发
+        RouteHedge hedge = hedges.computeIfAbsent(route.getId(), this::createHedge);
+        hedge.deposit(properties.getBudgetRatio());
+        long delayNanos = hedge.delayNanos();
+        if (delayNanos < 0) {
+            return chain.filter(exchange);
+        }
+
+        // 2. 首次请求；超过对冲延迟仍未返回且预算充足时，向另一个实例发出对冲请求
+        Attempt primary = new Attempt(exchange, null, false);
+        AtomicBoolean primaryDone = new AtomicBoolean();
+        Mono<Attempt> first = primary.run(chain).doOnNext(attempt -> primaryDone.set(true));
+        Mono<Attempt> second = Mono.delay(Duration.ofNanos(delayNanos))
+                .filter(tick -> !primaryDone.get() && hedge.withdraw())
+                .flatMap(tick -> {
+                    hedge.requests().increment();
+                    return new Attempt(exchange, primary.instance(), true).run(chain);
+                });
+
+        // 3. 取先成功的一次（另一次随即取消）；都失败时取后结束的一次
+        return Flux.merge(first, second)
+                .takeUntil(Attempt::succeeded)
+                .last()
+                .flatMap(winner -> {
+                    if (winner.hedged()) {
+                        hedge.wins().increment();
+                    }
+                    return winner.writeTo(exchange);
+                });
+    }
+
+    private RouteHedge createHedge(String routeId) {
+        RouteHedge hedge = new RouteHedge(routeId, meterRegistry.counter("gateway.hedge.requests", "route", routeId),
+                meterRegistry.counter("gateway.hedge.wins", "route", routeId));
+        Gauge.builder("gateway.hedge.delay", hedge, h -> h.delayNanos / 1_000_000.0)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return hedge;
+    }
+
+    private PathRules<String> rules() {
+        PathRules<String> current = rules;
+        if (!current.isCompiledFrom(properties.getRoutes())) {
+            current = PathRules.compile(properties.getRoutes(), Function.identity());
+            rules = current;
+        }
+        return current;
+    }
+
+    /**
+     * 路由的对冲状态：对冲延迟（定期从下游耗时直方图取p95）与对冲预算
+     */
+    private final class RouteHedge {
+
+        private final String routeId;
+
+        private final Counter requests;
+
+        private final Counter wins;
+
+        private final AtomicLong budget = new AtomicLong();
+
+        private volatile long delayNanos = -1;
+
+        private volatile long refreshedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+
+        RouteHedge(String routeId, Counter requests, Counter wins) {
+            this.routeId = routeId;
+            this.requests = requests;
+            this.wins = wins;
+        }
+
+        Counter requests() {
+            return requests;
+        }
+
+        Counter wins() {
+            return wins;
+        }
+
+        /**
+         * 当前对冲延迟（纳秒，样本不足时为 -1）
+         */
+        long delayNanos() {
+            long now = System.nanoTime();
+            if (now - refreshedAt >= DELAY_REFRESH_NANOS) {
+                refreshedAt = now;
+                delayNanos = computeDelay();
+            }
+            return delayNanos;
+        }
+
+        private long computeDelay() {
+            Timer upstream = gatewayMetrics.upstreamTimer(routeId);
+            if (upstream == null) {
+                return -1;
+            }
+            HistogramSnapshot snapshot = upstream.takeSnapshot();
+            if (snapshot.count() < properties.getMinSamples()) {
+                return -1;
+            }
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                if (percentile.percentile() == HEDGE_PERCENTILE) {
+                    return Math.max(properties.getMinDelay().toNanos(), (long) percentile.value(TimeUnit.NANOSECONDS));
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 每个请求积攒 budget-ratio 次对冲额度
+         */
+        void deposit(double ratio) {
+            long amount = (long) (ratio * BUDGET_UNIT);
+            budget.getAndUpdate(current -> Math.min(BUDGET_MAX, current + amount));
+        }
+
+        /**
+         * 消耗一次对冲额度
+         */
+        boolean withdraw() {
+            return budget.getAndUpdate(current -> current >= BUDGET_UNIT ? current - BUDGET_UNIT : current) >= BUDGET_UNIT;
+        }
+    }
+
+    /**
+     * 一次下游请求：独立的交换属性（负载均衡结果、连接等互不干扰）与缓冲响应
+     */
+    private static final class Attempt {
+
+        private final boolean hedged;
+
+        private final BufferingServerHttpResponse response;
+
+        private final ServerWebExchange exchange;
+
+        private volatile Throwable error;
+
+        Attempt(ServerWebExchange original, ServiceInstance excluded, boolean hedged) {
+            this.hedged = hedged;
+            this.response = new BufferingServerHttpResponse(original.getResponse().bufferFactory());
+            Map<String, Object> attributes = new ConcurrentHashMap<>(original.getAttributes());
+            attributes.computeIfPresent(RequestMetricsFilter.UPSTREAM_NANOS_ATTR, (key, value) -> new AtomicLong(-1));
+            if (excluded != null) {
+                attributes.put(ExcludedInstance.ATTR, excluded);
+            }
+            this.exchange = new AttemptExchange(original, response, attributes);
+        }
+
+        Mono<Attempt> run(GatewayFilterChain chain) {
+            return chain.filter(exchange)
+                    .thenReturn(this)
+                    .onErrorResume(e -> {
+                        error = e;
+                        return Mono.just(this);
+                    });
+        }
+
+        boolean hedged() {
+            return hedged;
+        }
+
+        boolean succeeded() {
+            HttpStatusCode status = response.getStatusCode();
+            return error == null && (status == null || !status.is5xxServerError());
+        }
+
+        /**
+         * 负载均衡选中的实例（尚未选定时返回null）
+         */
+        ServiceInstance instance() {
+            Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            return lbResponse != null && lbResponse.hasServer() ? lbResponse.getServer() : null;
+        }
+
+        /**
+         * 把本次请求的交换属性（已转发标记、负载均衡结果、下游耗时）与响应写回原请求
+         */
+        Mono<Void> writeTo(ServerWebExchange original) {
+            exchange.getAttributes().forEach((key, value) -> {
+                if (!RequestMetricsFilter.UPSTREAM_NANOS_ATTR.equals(key) && !ExcludedInstance.ATTR.equals(key)) {
+                    original.getAttributes().put(key, value);
+                }
+            });
+            AtomicLong upstreamNanos = original.getAttribute(RequestMetricsFilter.UPSTREAM_NANOS_ATTR);
+            AtomicLong attemptNanos = exchange.getAttribute(RequestMetricsFilter.UPSTREAM_NANOS_ATTR);
+            if (upstreamNanos != null && attemptNanos != null) {
+                upstreamNanos.set(attemptNanos.get());
+            }
+            if (error != null) {
+                return Mono.error(error);
+            }
+            return response.toBufferedResponse().writeTo(original.getResponse());
+        }
+    }
+
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+
+        private final ServerHttpResponse response;
+
+        private final Map<String, Object> attributes;
+
+        AttemptExchange(ServerWebExchange delegate, ServerHttpResponse response, Map<String, Object> attributes) {
+            super(delegate);
+            this.response = response;
+            this.attributes = attributes;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    /**
+     * 在熔断（-63）之后、并发限制（-60）之前执行：对冲请求同样占用并发名额，两次请求整体计为一次熔断调用
+     */
+    @Override
+    public int getOrder() {
+        return -62;
+    }
+}
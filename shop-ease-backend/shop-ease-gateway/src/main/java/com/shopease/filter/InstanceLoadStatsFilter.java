@@ -0,0 +1,62 @@
+package com.shopease.filter;
+
+import com.shopease.loadbalancer.InstanceLoadStats;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 下游实例负载统计过滤器
+ * <p>
+ * 在负载均衡选定实例之后执行，记录该实例的在途请求数与请求耗时（见 {@link InstanceLoadStats}）。
+ * 客户端断开等取消场景同样释放在途计数，避免计数泄漏导致实例被永久冷落。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class InstanceLoadStatsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLoadStats stats;
+
+    public InstanceLoadStatsFilter(InstanceLoadStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        stats.start(instance);
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        stats.cancel(instance);
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    stats.complete(instance, System.nanoTime() - start, failed);
+                });
+    }
+
+    /**
+     * 紧随负载均衡过滤器（ReactiveLoadBalancerClientFilter）之后执行
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
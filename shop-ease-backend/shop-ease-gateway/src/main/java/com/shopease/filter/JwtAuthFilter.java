@@ -1,53 +1,57 @@
 package com.shopease.filter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.shopease.result.Result;
+import com.shopease.constans.Constant;
+import com.shopease.utils.GatewayErrorWriter;
 import com.shopease.utils.JwtUtils;
+import com.shopease.utils.TokenRevocationList;
+import com.shopease.utils.VerifiedTokenCache;
+import com.shopease.utils.WhiteListMatcher;
+import io.jsonwebtoken.Claims;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * @author hspcadmin
  */
 @Component
 public class JwtAuthFilter implements GlobalFilter, Ordered {
 
-    private static final List<String> WHITE_LIST = Arrays.asList(
-            // 登录、注册接口
-            "/sys/user/login",
-            "/sys/user/register",
-            // 刷新Token接口
-            "/sys/user/refreshToken",
-            // 退出登录接口
-            "/sys/user/logout"
-    );
+    /**
+     * 已验证的用户ID（交换属性，供访问日志等外层过滤器读取）
+     */
+    public static final String USER_ID_ATTR = JwtAuthFilter.class.getName() + ".userId";
+
+    private final GatewayErrorWriter gatewayErrorWriter;
+
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    private final ObjectMapper objectMapper;
+    private final WhiteListMatcher whiteListMatcher;
 
-    public JwtAuthFilter(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    private final TokenRevocationList tokenRevocationList;
+
+    public JwtAuthFilter(GatewayErrorWriter gatewayErrorWriter, VerifiedTokenCache verifiedTokenCache,
+                         WhiteListMatcher whiteListMatcher, TokenRevocationList tokenRevocationList) {
+        this.gatewayErrorWriter = gatewayErrorWriter;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.whiteListMatcher = whiteListMatcher;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        String path = request.getPath().value();
-
-        // 1. 白名单接口直接放行
-        if (WHITE_LIST.stream().anyMatch(path::contains)) {
+        // 0. 清除客户端伪造的身份请求头（身份请求头只能由网关验签后写入）
+        ServerHttpRequest request = stripIdentityHeaders(exchange.getRequest());
+        if (request != exchange.getRequest()) {
+            exchange = exchange.mutate().request(request).build();
+        }
+        // 1. 白名单接口直接放行（白名单见 shopease.gateway.auth.white-list）
+        if (whiteListMatcher.matches(request.getPath().pathWithinApplication())) {
             return chain.filter(exchange);
         }
 
@@ -55,7 +59,7 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         String token = request.getHeaders().getFirst("Authorization");
         if (token == null || token.isEmpty()) {
             // 无 Token，返回 401 未登录
-            return handleUnAuth(exchange, "请先登录");
+            return handleUnAuth(exchange, GatewayErrorWriter.UNAUTHORIZED);
         }
         // 去除首尾空格（避免前端传参带空格）
         token = token.trim();
@@ -67,35 +71,64 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         }
         // 截取后 Token 为空（比如只传了 "Bearer" 没带具体值），直接返回401
         if (token.isEmpty()) {
-            return handleUnAuth(exchange, "Token格式错误，请重新登录");
+            return handleUnAuth(exchange, GatewayErrorWriter.TOKEN_MALFORMED);
         }
 
-        // 3. 验证 Token 有效性（仅验证Access Token）
-        boolean valid = JwtUtils.validateToken(token);
-        if (!valid) {
+        // 3. 验证 Token 有效性（仅验证Access Token，已验证过的Token直接命中缓存）
+        Claims claims = verifiedTokenCache.verify(token);
+        if (claims == null) {
             // Token 无效或过期，返回 401
-            return handleUnAuth(exchange, "登录已过期，请重新登录");
+            return handleUnAuth(exchange, GatewayErrorWriter.TOKEN_EXPIRED);
+        }
+        // 已吊销的 Token（修改密码、退出登录）返回 401（内存判断，不查询Redis）
+        if (tokenRevocationList.isRevoked(claims)) {
+            return handleUnAuth(exchange, GatewayErrorWriter.TOKEN_REVOKED);
         }
 
-        // 4. Token 有效，放行到对应的微服务
-        return chain.filter(exchange);
+        // 4. Token 有效，透传已验证的用户身份后放行到对应的微服务（下游无需重复验签）
+        Object userId = claims.get("userId");
+        Object username = claims.get("username");
+        if (userId != null) {
+            exchange.getAttributes().put(USER_ID_ATTR, userId.toString());
+        }
+        ServerHttpRequest authedRequest = request.mutate()
+                .headers(headers -> {
+                    if (userId != null) {
+                        headers.set(Constant.USER_ID_HEADER, userId.toString());
+                    }
+                    if (username != null) {
+                        headers.set(Constant.USERNAME_HEADER, username.toString());
+                    }
+                    if (userId != null) {
+                        headers.set(Constant.IDENTITY_SIGNATURE_HEADER, JwtUtils.signGatewayIdentity(userId.toString(),
+                                username == null ? null : username.toString(), System.currentTimeMillis()));
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(authedRequest).build());
+    }
+
+    /**
+     * 移除客户端携带的内部身份请求头
+     */
+    private ServerHttpRequest stripIdentityHeaders(ServerHttpRequest request) {
+        if (!request.getHeaders().containsKey(Constant.USER_ID_HEADER)
+                && !request.getHeaders().containsKey(Constant.USERNAME_HEADER)
+                && !request.getHeaders().containsKey(Constant.IDENTITY_SIGNATURE_HEADER)) {
+            return request;
+        }
+        return request.mutate()
+                .headers(headers -> {
+                    headers.remove(Constant.USER_ID_HEADER);
+                    headers.remove(Constant.USERNAME_HEADER);
+                    headers.remove(Constant.IDENTITY_SIGNATURE_HEADER);
+                })
+                .build();
     }
 
     private Mono<Void> handleUnAuth(ServerWebExchange exchange, String msg) {
-        ServerHttpResponse response = exchange.getResponse();
         // 401的状态码
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().add("Content-Type", "application/json;charset=UTF-8");
-
-        // 封装响应结果
-        Result<Void> result = Result.error(msg);
-        try {
-            byte[] bytes = objectMapper.writeValueAsString(result).getBytes(StandardCharsets.UTF_8);
-            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            return response.setComplete();
-        }
+        return gatewayErrorWriter.write(exchange, HttpStatus.UNAUTHORIZED, msg);
     }
 
     /**
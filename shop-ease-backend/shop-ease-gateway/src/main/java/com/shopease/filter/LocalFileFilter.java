@@ -0,0 +1,214 @@
+package com.shopease.filter;
+
+import com.shopease.config.LocalFileProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 本地静态文件过滤器（/upload/** 由网关直接读盘返回）
+ * <p>
+ * 省去 网关 → user-service 的一跳与 Servlet 线程占用，文件内容通过 Netty 零拷贝（FileRegion/sendfile）写出。
+ * 支持 ETag / Last-Modified 协商缓存（304）与单段 Range 请求（206）；
+ * 文件在本地不存在时继续走原路由转发到 user-service。读取文件属性（stat）在 boundedElastic 线程中执行，不阻塞事件循环。
+ * 指标：gateway.local_files.requests{result=served|not_modified|fallback}
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class LocalFileFilter implements GlobalFilter, Ordered {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final LocalFileProperties properties;
+
+    private final Counter servedCounter;
+
+    private final Counter notModifiedCounter;
+
+    private final Counter fallbackCounter;
+
+    public LocalFileFilter(LocalFileProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.servedCounter = meterRegistry.counter("gateway.local_files.requests", "result", "served");
+        this.notModifiedCounter = meterRegistry.counter("gateway.local_files.requests", "result", "not_modified");
+        this.fallbackCounter = meterRegistry.counter("gateway.local_files.requests", "result", "fallback");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!properties.isEnabled() || properties.getRootDir() == null || !path.startsWith(properties.getAccessPrefix())
+                || (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD)) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 解析本地文件（防止 ../ 越出上传目录），不存在时转发到 user-service
+        Path file = resolve(path.substring(properties.getAccessPrefix().length()));
+        if (file == null) {
+            return fallback(exchange, chain);
+        }
+        return Mono.fromCallable(() -> readAttributes(file))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(attributes -> attributes.filter(BasicFileAttributes::isRegularFile)
+                        .map(regularFile -> serve(exchange, file, regularFile))
+                        .orElseGet(() -> fallback(exchange, chain)));
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, GatewayFilterChain chain) {
+        fallbackCounter.increment();
+        return chain.filter(exchange);
+    }
+
+    /**
+     * 返回本地文件（协商缓存、分段请求、零拷贝写出）
+     */
+    private Mono<Void> serve(ServerWebExchange exchange, Path file, BasicFileAttributes attributes) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        // 2. 协商缓存：ETag 由文件大小与修改时间生成
+        long length = attributes.size();
+        Instant lastModified = attributes.lastModifiedTime().toInstant().truncatedTo(ChronoUnit.SECONDS);
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified.getEpochSecond()) + "\"";
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setCacheControl("max-age=" + properties.getCacheMaxAge().toSeconds());
+        if (exchange.checkNotModified(etag, lastModified)) {
+            notModifiedCounter.increment();
+            return response.setComplete();
+        }
+
+        // 3. 分段请求
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM));
+        long position = 0;
+        long count = length;
+        HttpRange range = singleRange(request, etag, lastModified);
+        if (range != null) {
+            if (!isSatisfiable(range, length)) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                return response.setComplete();
+            }
+            position = range.getRangeStart(length);
+            count = range.getRangeEnd(length) - position + 1;
+            response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + position + "-" + (position + count - 1) + "/" + length);
+        }
+        headers.setContentLength(count);
+        servedCounter.increment();
+        if (request.getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+
+        // 4. 写出文件内容：优先零拷贝，响应被装饰等不支持时按块读取
+        if (response instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            return zeroCopy.writeWith(file, position, count);
+        }
+        long skip = position;
+        long take = count;
+        return response.writeWith(DataBufferUtils.read(file, response.bufferFactory(), READ_BUFFER_SIZE)
+                .transform(buffers -> DataBufferUtils.skipUntilByteCount(buffers, skip))
+                .transform(buffers -> DataBufferUtils.takeUntilByteCount(buffers, take)));
+    }
+
+    /**
+     * 将请求路径解析为上传目录下的文件，越出上传目录时返回null
+     */
+    private Path resolve(String relativePath) {
+        try {
+            Path root = Path.of(properties.getRootDir()).toAbsolutePath().normalize();
+            Path file = root.resolve(UriUtils.decode(relativePath, StandardCharsets.UTF_8)).normalize();
+            return file.startsWith(root) && !file.equals(root) ? file : null;
+        } catch (RuntimeException e) {
+            // 非法路径字符等
+            return null;
+        }
+    }
+
+    /**
+     * 读取文件属性（阻塞IO，在 boundedElastic 线程中调用），文件不存在或不可读时返回空
+     */
+    private static Optional<BasicFileAttributes> readAttributes(Path file) {
+        try {
+            return Optional.of(Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 解析 Range 请求头，只支持单段；多段或 If-Range 不匹配时返回null（返回完整文件）
+     */
+    private HttpRange singleRange(ServerHttpRequest request, String etag, Instant lastModified) {
+        HttpHeaders requestHeaders = request.getHeaders();
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            try {
+                if (Instant.ofEpochMilli(requestHeaders.getFirstDate(HttpHeaders.IF_RANGE)).isBefore(lastModified)) {
+                    return null;
+                }
+            } catch (IllegalArgumentException e) {
+                // 既不是当前ETag也不是日期
+                return null;
+            }
+        }
+        return ranges.get(0);
+    }
+
+    private boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            return length > 0 && range.getRangeStart(length) < length;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 在鉴权（-100）、限流（-90）之后执行；本地命中的文件不占用下游并发名额（-60）
+     */
+    @Override
+    public int getOrder() {
+        return -65;
+    }
+}
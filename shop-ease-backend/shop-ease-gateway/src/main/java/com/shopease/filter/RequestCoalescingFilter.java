@@ -0,0 +1,126 @@
+package com.shopease.filter;
+
+import com.shopease.config.CoalescingProperties;
+import com.shopease.utils.BodyCapturingResponseDecorator;
+import com.shopease.utils.BufferedResponse;
+import com.shopease.utils.PathRules;
+import com.shopease.utils.RequestKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * 相同GET请求合并过滤器（single-flight）
+ * <p>
+ * 同一时刻到达的相同请求（方法 + 路径 + 规范化查询参数）只转发第一个到下游，
+ * 其余请求等待其响应并共享同一份响应体（响应头 X-Coalesced: true）。
+ * 首个请求失败、未产生响应或等待超过 max-wait 时，等待中的请求各自转发到下游，不会因合并而失败。
+ * 指标：gateway.coalescing.requests{role=leader|follower|fallback}
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final String COALESCED_HEADER = "X-Coalesced";
+
+    private final CoalescingProperties properties;
+
+    private final ConcurrentMap<String, Sinks.One<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderCounter;
+
+    private final Counter followerCounter;
+
+    private final Counter fallbackCounter;
+
+    private volatile PathRules<String> rules;
+
+    public RequestCoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rules = PathRules.compile(properties.getRoutes(), Function.identity());
+        this.leaderCounter = meterRegistry.counter("gateway.coalescing.requests", "role", "leader");
+        this.followerCounter = meterRegistry.counter("gateway.coalescing.requests", "role", "follower");
+        this.fallbackCounter = meterRegistry.counter("gateway.coalescing.requests", "role", "fallback");
+        meterRegistry.gaugeMapSize("gateway.coalescing.in_flight", Tags.empty(), inFlight);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET
+                || rules().match(request.getPath().pathWithinApplication()) == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = RequestKeys.normalized(request);
+        Sinks.One<BufferedResponse> sink = Sinks.one();
+        Sinks.One<BufferedResponse> existing = inFlight.putIfAbsent(key, sink);
+
+        // 1. 已有相同请求在途：等待其响应
+        if (existing != null) {
+            return existing.asMono()
+                    .timeout(properties.getMaxWait())
+                    .map(Optional::of)
+                    .onErrorReturn(Optional.empty())
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        // 首个请求未产生可共享的响应或等待超时，自行请求下游
+                        if (shared.isEmpty()) {
+                            fallbackCounter.increment();
+                            return chain.filter(exchange);
+                        }
+                        followerCounter.increment();
+                        exchange.getResponse().getHeaders().set(COALESCED_HEADER, "true");
+                        return shared.get().writeTo(exchange.getResponse());
+                    });
+        }
+
+        // 2. 首个请求：转发下游，并把响应分发给等待中的请求
+        leaderCounter.increment();
+        BodyCapturingResponseDecorator decorator = new BodyCapturingResponseDecorator(exchange.getResponse(), captured -> {
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(captured);
+        });
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> {
+                    // 出错、取消或没有写出响应体时，通知等待者自行请求
+                    if (inFlight.remove(key, sink)) {
+                        sink.tryEmitEmpty();
+                    }
+                });
+    }
+
+    private PathRules<String> rules() {
+        PathRules<String> current = rules;
+        if (!current.isCompiledFrom(properties.getRoutes())) {
+            current = PathRules.compile(properties.getRoutes(), Function.identity());
+            rules = current;
+        }
+        return current;
+    }
+
+    /**
+     * 在响应缓存（-80）之后执行：缓存未命中的相同请求才需要合并
+     */
+    @Override
+    public int getOrder() {
+        return -70;
+    }
+}
@@ -0,0 +1,86 @@
+package com.shopease.filter;
+
+import com.shopease.utils.ByteCountingRequestDecorator;
+import com.shopease.utils.ByteCountingResponseDecorator;
+import com.shopease.utils.GatewayMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求指标过滤器（最先执行，覆盖鉴权、限流、缓存等全部网关处理耗时）
+ * <p>
+ * 按路由、状态码记录总耗时与请求/响应字节数；下游耗时由 {@link UpstreamTimingFilter} 写入交换属性，
+ * 两者之差即网关内部耗时。指标明细见 {@link GatewayMetrics}，汇总见 /actuator/latency。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 下游耗时（纳秒，AtomicLong，未转发到下游时为 -1）
+     */
+    public static final String UPSTREAM_NANOS_ATTR = RequestMetricsFilter.class.getName() + ".upstreamNanos";
+
+    private static final String NO_ROUTE = "none";
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public RequestMetricsFilter(GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        AtomicLong upstreamNanos = new AtomicLong(-1);
+        exchange.getAttributes().put(UPSTREAM_NANOS_ATTR, upstreamNanos);
+
+        ByteCountingRequestDecorator request = new ByteCountingRequestDecorator(exchange.getRequest());
+        ByteCountingResponseDecorator response = new ByteCountingResponseDecorator(exchange.getResponse());
+
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doFinally(signal -> {
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    gatewayMetrics.record(route == null ? NO_ROUTE : route.getId(), statusCode(exchange, signal),
+                            System.nanoTime() - start, upstreamNanos.get(), request.getBytes(), response.getBytes());
+                });
+    }
+
+    /**
+     * 响应状态（取消时为 cancelled，未设置状态码时按信号推断）
+     */
+    public static String status(ServerWebExchange exchange, SignalType signal) {
+        int status = statusCode(exchange, signal);
+        return status == GatewayMetrics.STATUS_CANCELLED ? "cancelled" : String.valueOf(status);
+    }
+
+    /**
+     * 响应状态码（取消时为 {@link GatewayMetrics#STATUS_CANCELLED}，未设置状态码时按信号推断）
+     */
+    public static int statusCode(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return GatewayMetrics.STATUS_CANCELLED;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null) {
+            return signal == SignalType.ON_ERROR ? 500 : 200;
+        }
+        return status.value();
+    }
+
+    @Override
+    public int getOrder() {
+        return -200;
+    }
+}
@@ -0,0 +1,131 @@
+package com.shopease.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopease.config.ResponseCacheProperties;
+import com.shopease.constans.Constant;
+import com.shopease.utils.BodyCapturingResponseDecorator;
+import com.shopease.utils.BufferedResponse;
+import com.shopease.utils.PathRules;
+import com.shopease.utils.RequestKeys;
+import com.shopease.utils.ResponseCacheStore;
+import com.shopease.utils.ResponseCacheStore.CachedResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 商品目录GET接口响应缓存过滤器
+ * <p>
+ * /goods/list、/goods/{id}、/goods/category/tree 等接口对所有用户返回相同内容，
+ * 命中缓存时直接由网关返回，不再经过 good-service 和 MySQL。
+ * 缓存Key = 方法 + 路径 + 规范化后的查询参数（见 {@link RequestKeys#normalized}），
+ * 只缓存 HTTP 200 且业务码为 200 的响应。
+ * 响应头 X-Cache 标识缓存状态（HIT / MISS / BYPASS），命中时附带 Age。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCacheProperties properties;
+
+    private final ResponseCacheStore store;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile PathRules<ResponseCacheProperties.Rule> rules;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ResponseCacheStore store, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.rules = PathRules.compile(properties.getRoutes(), ResponseCacheProperties.Rule::getPath);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        ResponseCacheProperties.Rule rule = rules().match(request.getPath().pathWithinApplication());
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        // 分段请求不走缓存
+        if (request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            response.getHeaders().set(CACHE_STATUS_HEADER, "BYPASS");
+            return chain.filter(exchange);
+        }
+
+        // 1. 命中缓存，直接返回
+        String key = RequestKeys.normalized(request);
+        CachedResponse cached = store.get(key);
+        if (cached != null) {
+            response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+            response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+            return cached.response().writeTo(response);
+        }
+
+        // 2. 未命中，转发到下游并在写回时缓存响应体
+        response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        BodyCapturingResponseDecorator decorator = new BodyCapturingResponseDecorator(response, captured -> {
+            if (isCacheable(captured)) {
+                store.put(key, new CachedResponse(captured, System.currentTimeMillis(), rule.getTtl()));
+                log.debug("响应已缓存，key：{}，大小：{}字节", key, captured.body().length);
+            }
+        }, CACHE_STATUS_HEADER);
+        return chain.filter(exchange.mutate().response(decorator).build());
+    }
+
+    /**
+     * 判断响应是否可缓存：HTTP 200，JSON 响应需业务码为 200（业务异常同样返回 HTTP 200）
+     */
+    private boolean isCacheable(BufferedResponse captured) {
+        if (captured.status() != 200 || captured.body().length > properties.getMaxBodyBytes()) {
+            return false;
+        }
+        MediaType contentType = captured.headers().getContentType();
+        if (contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return true;
+        }
+        try {
+            JsonNode code = objectMapper.readTree(captured.body()).get("code");
+            return code != null && code.asInt() == Constant.SUCCESS_CODE;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private PathRules<ResponseCacheProperties.Rule> rules() {
+        PathRules<ResponseCacheProperties.Rule> current = rules;
+        if (!current.isCompiledFrom(properties.getRoutes())) {
+            current = PathRules.compile(properties.getRoutes(), ResponseCacheProperties.Rule::getPath);
+            rules = current;
+        }
+        return current;
+    }
+
+    /**
+     * 在鉴权（-100）之后、写回响应（NettyWriteResponseFilter，-1）之前执行
+     */
+    @Override
+    public int getOrder() {
+        return -80;
+    }
+}
@@ -0,0 +1,39 @@
+package com.shopease.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 下游耗时过滤器
+ * <p>
+ * 紧挨转发过滤器（NettyRoutingFilter）之前执行，记录从发起转发到收到下游响应头的耗时，
+ * 写入 {@link RequestMetricsFilter#UPSTREAM_NANOS_ATTR}。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        AtomicLong upstreamNanos = exchange.getAttribute(RequestMetricsFilter.UPSTREAM_NANOS_ATTR);
+        if (upstreamNanos == null) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> upstreamNanos.set(System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
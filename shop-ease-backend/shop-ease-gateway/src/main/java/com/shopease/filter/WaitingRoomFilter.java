@@ -0,0 +1,134 @@
+package com.shopease.filter;
+
+import com.shopease.config.WaitingRoomProperties;
+import com.shopease.constans.Constant;
+import com.shopease.result.Result;
+import com.shopease.utils.GatewayErrorWriter;
+import com.shopease.utils.LocalWaitingRoom;
+import com.shopease.utils.PathRules;
+import com.shopease.utils.RedisWaitingRoom;
+import com.shopease.utils.RequestKeys;
+import com.shopease.utils.WaitingRoom;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 网关等候室过滤器（大促商品排队）
+ * <p>
+ * 命中等候室的请求按 用户ID（已登录）或 客户端IP 领取排队号，按配置速率先到先得放行；
+ * 未放行的请求不转发到下游，返回 HTTP 202 与业务码 {@link Constant#QUEUE_CODE}，
+ * 响应体包含排队号、前面人数、预计等待时间和轮询间隔（同时设置 Retry-After），客户端按间隔重试同一接口即可。
+ * 放行后在 passTtl 内的请求直接通过。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class WaitingRoomFilter implements GlobalFilter, Ordered {
+
+    private final WaitingRoomProperties properties;
+
+    private final LocalWaitingRoom localWaitingRoom;
+
+    private final RedisWaitingRoom redisWaitingRoom;
+
+    private final GatewayErrorWriter gatewayErrorWriter;
+
+    private final MeterRegistry meterRegistry;
+
+    private volatile PathRules<WaitingRoomProperties.Room> rules;
+
+    public WaitingRoomFilter(WaitingRoomProperties properties, LocalWaitingRoom localWaitingRoom,
+                             RedisWaitingRoom redisWaitingRoom, GatewayErrorWriter gatewayErrorWriter,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.localWaitingRoom = localWaitingRoom;
+        this.redisWaitingRoom = redisWaitingRoom;
+        this.gatewayErrorWriter = gatewayErrorWriter;
+        this.meterRegistry = meterRegistry;
+        this.rules = PathRules.compile(properties.getRooms(), WaitingRoomProperties.Room::getPath);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        PathRules.Matched<WaitingRoomProperties.Room> matched = rules().matchAndExtract(request.getPath().pathWithinApplication());
+        if (matched == null) {
+            return chain.filter(exchange);
+        }
+
+        // 1. 确定队列：按路径变量分别排队时，只对配置的商品ID排队
+        WaitingRoomProperties.Room room = matched.rule();
+        String queue = room.getName();
+        if (room.getVariable() != null) {
+            String value = matched.variables().get(room.getVariable());
+            if (value == null || (!room.getIds().isEmpty() && !room.getIds().contains(value))) {
+                return chain.filter(exchange);
+            }
+            queue = queue + ":" + value;
+        }
+
+        // 2. 领取/沿用排队号
+        int burst = room.getBurst() == null ? Math.max(1, (int) Math.ceil(room.getRate())) : room.getBurst();
+        WaitingRoom waitingRoom = properties.getMode() == WaitingRoomProperties.Mode.REDIS
+                ? redisWaitingRoom : localWaitingRoom;
+        return waitingRoom.enter(queue, RequestKeys.identity(request), room.getRate(), burst)
+                .flatMap(admission -> {
+                    if (admission.admitted()) {
+                        meterRegistry.counter("gateway.waiting_room.requests", "room", room.getName(), "result", "admitted").increment();
+                        return chain.filter(exchange);
+                    }
+                    meterRegistry.counter("gateway.waiting_room.requests", "room", room.getName(), "result", "queued").increment();
+                    return writeQueued(exchange, room, admission);
+                });
+    }
+
+    /**
+     * 返回排队结果（HTTP 202，不可缓存）
+     */
+    private Mono<Void> writeQueued(ServerWebExchange exchange, WaitingRoomProperties.Room room,
+                                   WaitingRoom.Admission admission) {
+        long pollAfterMillis = properties.getPollInterval().toMillis();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("ticket", admission.ticket());
+        data.put("ahead", admission.ahead());
+        data.put("estimatedWaitSeconds", (long) Math.ceil((admission.ahead() + 1) / room.getRate()));
+        data.put("pollAfterMillis", pollAfterMillis);
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (pollAfterMillis + 999) / 1000)));
+        headers.setCacheControl("no-store");
+        return gatewayErrorWriter.write(exchange, HttpStatus.ACCEPTED,
+                new Result<>(Constant.QUEUE_CODE, Constant.QUEUE_MESSAGE, data));
+    }
+
+    private PathRules<WaitingRoomProperties.Room> rules() {
+        PathRules<WaitingRoomProperties.Room> current = rules;
+        if (!current.isCompiledFrom(properties.getRooms())) {
+            current = PathRules.compile(properties.getRooms(), WaitingRoomProperties.Room::getPath);
+            rules = current;
+        }
+        return current;
+    }
+
+    /**
+     * 在限流（-90）与响应缓存（-80）之后执行：命中缓存的请求不经过MySQL，无需排队
+     */
+    @Override
+    public int getOrder() {
+        return -78;
+    }
+}
@@ -0,0 +1,198 @@
+package com.shopease.loadbalancer;
+
+import com.shopease.config.LoadBalancerProperties;
+import com.shopease.utils.PathRules;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.server.PathContainer;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 一致性哈希负载均衡器（有界负载）
+ * <p>
+ * 命中 shopease.gateway.load-balancer.consistent-hash.routes 的请求按Key（如商品ID、用户ID）哈希到环上，
+ * 同一Key固定落在同一实例，下游的进程内缓存只需缓存自己负责的那部分数据。
+ * 每个实例在环上有多个虚拟节点，实例上下线只迁移该实例相邻区间的Key；
+ * 顺时针查找时跳过在途请求数已超过 平均值 × load-factor 的实例，热点Key不会压垮单个实例。
+ * 未命中规则或取不到Key的请求交给 delegate（P2C 或轮询）。
+ *
+ * @author hspcadmin
+ */
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+
+    private final ReactorServiceInstanceLoadBalancer delegate;
+
+    private final InstanceLoadStats stats;
+
+    private final LoadBalancerProperties properties;
+
+    private volatile PathRules<LoadBalancerProperties.Rule> rules;
+
+    private volatile Ring ring = Ring.EMPTY;
+
+    public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                      ReactorServiceInstanceLoadBalancer delegate, InstanceLoadStats stats,
+                                      LoadBalancerProperties properties) {
+        this.supplierProvider = supplierProvider;
+        this.delegate = delegate;
+        this.stats = stats;
+        this.properties = properties;
+        this.rules = PathRules.compile(properties.getConsistentHash().getRoutes(), LoadBalancerProperties.Rule::getPath);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        String key = properties.getConsistentHash().isEnabled() ? hashKey(request) : null;
+        if (key == null) {
+            return delegate.choose(request);
+        }
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        ServiceInstance excluded = ExcludedInstance.of(request);
+        return supplier.get(request).next().map(instances -> choose(instances, key, excluded));
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, String key, ServiceInstance excluded) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        Ring current = ring(instances);
+
+        // 有界负载：单实例在途请求数上限 = ceil(load-factor × (总在途请求数 + 1) / 实例数)
+        int totalInFlight = 0;
+        for (ServiceInstance instance : current.instances()) {
+            totalInFlight += stats.inFlight(instance);
+        }
+        double capacity = Math.ceil(properties.getConsistentHash().getLoadFactor() * (totalInFlight + 1)
+                / current.instances().length);
+
+        // 从Key的哈希位置顺时针查找第一个未超载的实例（对冲请求跳过首次请求所在的实例）
+        long[] hashes = current.hashes();
+        int start = Arrays.binarySearch(hashes, hash(key));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        for (int i = 0; i < hashes.length; i++) {
+            ServiceInstance candidate = current.owners()[(start + i) % hashes.length];
+            if (stats.inFlight(candidate) < capacity && !ExcludedInstance.matches(excluded, candidate)) {
+                return new DefaultResponse(candidate);
+            }
+        }
+        return new DefaultResponse(current.owners()[start % hashes.length]);
+    }
+
+    /**
+     * 提取请求的路由Key：路径变量优先，其次请求头
+     */
+    private String hashKey(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return null;
+        }
+        PathRules.Matched<LoadBalancerProperties.Rule> matched = rules()
+                .matchAndExtract(PathContainer.parsePath(context.getClientRequest().getUrl().getRawPath()));
+        if (matched == null) {
+            return null;
+        }
+        LoadBalancerProperties.Rule rule = matched.rule();
+        if (rule.getVariable() != null) {
+            return matched.variables().get(rule.getVariable());
+        }
+        return rule.getHeader() == null ? null : context.getClientRequest().getHeaders().getFirst(rule.getHeader());
+    }
+
+    /**
+     * 实例列表不变时复用已构建的哈希环
+     */
+    private Ring ring(List<ServiceInstance> instances) {
+        String fingerprint = fingerprint(instances);
+        Ring current = ring;
+        if (!current.fingerprint().equals(fingerprint)) {
+            current = Ring.build(fingerprint, instances, properties.getConsistentHash().getVirtualNodes());
+            ring = current;
+        }
+        return current;
+    }
+
+    private PathRules<LoadBalancerProperties.Rule> rules() {
+        PathRules<LoadBalancerProperties.Rule> current = rules;
+        if (!current.isCompiledFrom(properties.getConsistentHash().getRoutes())) {
+            current = PathRules.compile(properties.getConsistentHash().getRoutes(), LoadBalancerProperties.Rule::getPath);
+            rules = current;
+        }
+        return current;
+    }
+
+    private static String fingerprint(List<ServiceInstance> instances) {
+        return instances.stream()
+                .map(ConsistentHashLoadBalancer::address)
+                .sorted()
+                .reduce((a, b) -> a + "," + b)
+                .orElse("");
+    }
+
+    private static String address(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * 64位哈希（FNV-1a + MurmurHash3 fmix64 混淆，保证虚拟节点在环上分布均匀）
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 哈希环：hashes 升序排列，owners[i] 为 hashes[i] 所属实例
+     */
+    private record Ring(String fingerprint, ServiceInstance[] instances, long[] hashes, ServiceInstance[] owners) {
+
+        static final Ring EMPTY = new Ring("", new ServiceInstance[0], new long[0], new ServiceInstance[0]);
+
+        static Ring build(String fingerprint, List<ServiceInstance> instances, int virtualNodes) {
+            int nodes = Math.max(1, virtualNodes);
+            long[][] points = new long[instances.size() * nodes][];
+            int n = 0;
+            for (int i = 0; i < instances.size(); i++) {
+                String address = address(instances.get(i));
+                for (int v = 0; v < nodes; v++) {
+                    points[n++] = new long[]{hash(address + "#" + v), i};
+                }
+            }
+            Arrays.sort(points, Comparator.comparingLong(point -> point[0]));
+            long[] hashes = new long[points.length];
+            ServiceInstance[] owners = new ServiceInstance[points.length];
+            for (int i = 0; i < points.length; i++) {
+                hashes[i] = points[i][0];
+                owners[i] = instances.get((int) points[i][1]);
+            }
+            return new Ring(fingerprint, instances.toArray(new ServiceInstance[0]), hashes, owners);
+        }
+    }
+}
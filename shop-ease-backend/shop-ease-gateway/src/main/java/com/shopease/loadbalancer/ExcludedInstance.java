@@ -0,0 +1,62 @@
+package com.shopease.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 负载均衡时需要避开的实例（交换属性，如对冲请求避开首次请求所在的实例）
+ *
+ * @author hspcadmin
+ */
+public final class ExcludedInstance {
+
+    /**
+     * 需要避开的实例（交换属性，值为 ServiceInstance）
+     */
+    public static final String ATTR = ExcludedInstance.class.getName();
+
+    private ExcludedInstance() {
+    }
+
+    /**
+     * 获取请求指定避开的实例
+     *
+     * @return 需要避开的实例；未指定时返回null
+     */
+    public static ServiceInstance of(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return null;
+        }
+        Map<String, Object> attributes = context.getClientRequest().getAttributes();
+        return attributes != null && attributes.get(ATTR) instanceof ServiceInstance instance ? instance : null;
+    }
+
+    /**
+     * 是否为需要避开的实例（按地址判断）
+     */
+    public static boolean matches(ServiceInstance excluded, ServiceInstance candidate) {
+        return excluded != null && excluded.getPort() == candidate.getPort()
+                && excluded.getHost().equals(candidate.getHost());
+    }
+
+    /**
+     * 去掉需要避开的实例（去掉后没有可用实例时返回原列表）
+     */
+    public static List<ServiceInstance> filter(ServiceInstance excluded, List<ServiceInstance> instances) {
+        if (excluded == null || instances.size() < 2) {
+            return instances;
+        }
+        List<ServiceInstance> remaining = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!matches(excluded, instance)) {
+                remaining.add(instance);
+            }
+        }
+        return remaining.isEmpty() ? instances : remaining;
+    }
+}
@@ -0,0 +1,37 @@
+package com.shopease.loadbalancer;
+
+import com.shopease.config.LoadBalancerProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 各下游服务负载均衡子容器的配置（由 {@link com.shopease.config.LoadBalancerConfig} 注册为默认配置）
+ * <p>
+ * 按 strategy 选择 P2C 或轮询，外层套一致性哈希（启用且命中规则时按Key路由，否则交给内层）。
+ * 注意：不能加 @Configuration，否则会被主容器扫描，所有服务共用同一个负载均衡器实例。
+ *
+ * @author hspcadmin
+ */
+public class GatewayLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> gatewayLoadBalancer(Environment environment,
+                                                                    LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                    InstanceLoadStats stats,
+                                                                    LoadBalancerProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider =
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        ReactorServiceInstanceLoadBalancer delegate = properties.getStrategy() == LoadBalancerProperties.Strategy.ROUND_ROBIN
+                ? new RoundRobinLoadBalancer(supplierProvider, serviceId)
+                : new PeakEwmaLoadBalancer(supplierProvider, serviceId, stats);
+        return new ConsistentHashLoadBalancer(supplierProvider, delegate, stats, properties);
+    }
+}
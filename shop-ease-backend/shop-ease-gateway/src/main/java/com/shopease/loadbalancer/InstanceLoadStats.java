@@ -0,0 +1,117 @@
+package com.shopease.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopease.config.LoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 下游实例负载统计（在途请求数 + 峰值敏感的延迟EWMA）
+ * <p>
+ * 由 {@link com.shopease.filter.InstanceLoadStatsFilter} 在请求开始/结束时记录，
+ * 供 {@link PeakEwmaLoadBalancer} 计算实例开销：开销 = 延迟EWMA × (在途请求数 + 1)。
+ * 延迟按时间衰减（decay-time），新样本高于当前值时直接取新样本，GC停顿等突发变慢能立即反映；
+ * 读取时同样衰减，避免一次变慢的实例因不再被选中而永远得不到新样本。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class InstanceLoadStats {
+
+    private final LoadBalancerProperties properties;
+
+    private final Cache<String, Stats> stats = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    public InstanceLoadStats(LoadBalancerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 请求开始
+     */
+    public void start(ServiceInstance instance) {
+        of(instance).inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求结束
+     *
+     * @param rttNanos 请求耗时（纳秒）
+     * @param failed   是否失败（失败时按 failure-penalty 计入样本）
+     */
+    public void complete(ServiceInstance instance, long rttNanos, boolean failed) {
+        Stats instanceStats = of(instance);
+        instanceStats.inFlight.decrementAndGet();
+        long sample = failed ? Math.max(rttNanos, properties.getFailurePenalty().toNanos()) : rttNanos;
+        instanceStats.observe(sample, properties.getDecayTime().toNanos());
+    }
+
+    /**
+     * 请求被取消，只减少在途请求数
+     */
+    public void cancel(ServiceInstance instance) {
+        of(instance).inFlight.decrementAndGet();
+    }
+
+    /**
+     * 实例当前开销（越小越优先）
+     */
+    public double cost(ServiceInstance instance) {
+        Stats instanceStats = of(instance);
+        return instanceStats.latency(properties.getDecayTime().toNanos()) * (instanceStats.inFlight.get() + 1);
+    }
+
+    /**
+     * 实例当前在途请求数
+     */
+    public int inFlight(ServiceInstance instance) {
+        return of(instance).inFlight.get();
+    }
+
+    private Stats of(ServiceInstance instance) {
+        return stats.get(key(instance), k -> new Stats(properties.getInitialLatency().toNanos()));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static class Stats {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private double ewmaNanos;
+
+        private long lastUpdateNanos;
+
+        Stats(long initialNanos) {
+            this.ewmaNanos = initialNanos;
+            this.lastUpdateNanos = System.nanoTime();
+        }
+
+        synchronized void observe(long sampleNanos, long decayNanos) {
+            long now = System.nanoTime();
+            if (sampleNanos > ewmaNanos) {
+                // 峰值敏感：变慢立即生效
+                ewmaNanos = sampleNanos;
+            } else {
+                double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + sampleNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        /**
+         * 读取时按距上次样本的时间衰减：长时间未被选中的实例开销逐渐降低，会被重新探测
+         */
+        synchronized double latency(long decayNanos) {
+            return ewmaNanos * Math.exp(-(double) (System.nanoTime() - lastUpdateNanos) / decayNanos);
+        }
+    }
+}
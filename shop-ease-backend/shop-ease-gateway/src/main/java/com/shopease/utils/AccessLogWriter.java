@@ -0,0 +1,280 @@
+package com.shopease.utils;
+
+import com.shopease.config.AccessLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 异步访问日志写入器
+ * <p>
+ * 事件循环线程只把 {@link AccessLogRecord} 放入无锁环形缓冲区（{@link MpscRingBuffer}），
+ * 格式化与磁盘IO全部在后台线程中批量完成；缓冲区满时丢弃记录并计入 gateway.access_log.dropped。
+ * 每行一条 JSON 记录，文件超过 max-file-size 时按时间后缀滚动，保留 max-history 个历史文件。
+ * 后台线程仅在启用时随容器启动，并在 Web 服务器停止（处理完剩余请求）之后写完缓冲区再退出。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class AccessLogWriter implements SmartLifecycle {
+
+    private static final DateTimeFormatter ROLL_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+
+    private static final int BATCH_BYTES = 64 * 1024;
+
+    private final AccessLogProperties properties;
+
+    private final MpscRingBuffer<AccessLogRecord> ringBuffer;
+
+    private final Counter droppedCounter;
+
+    private volatile Thread writerThread;
+
+    private volatile boolean running;
+
+    private OutputStream out;
+
+    private long fileSize;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ringBuffer = new MpscRingBuffer<>(properties.getBufferSize());
+        this.droppedCounter = meterRegistry.counter("gateway.access_log.dropped");
+    }
+
+    /**
+     * 提交一条访问日志（不阻塞）
+     */
+    public void append(AccessLogRecord record) {
+        if (!ringBuffer.offer(record)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * 启动后台写入线程（未启用访问日志时不启动）
+     */
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || writerThread != null) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::run, "gateway-access-log");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+    }
+
+    /**
+     * 停止后台写入线程（写完缓冲区中的记录并关闭文件）
+     */
+    @Override
+    public void stop() {
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writerThread != null;
+    }
+
+    /**
+     * 早于 Web 服务器启动、晚于其停止，优雅停机期间处理完的请求也能写入日志
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void run() {
+        StringBuilder batch = new StringBuilder(BATCH_BYTES);
+        while (true) {
+            boolean stopping = !running;
+            AccessLogRecord record;
+            while ((record = ringBuffer.poll()) != null) {
+                record.appendJson(batch);
+                batch.append('\n');
+                if (batch.length() >= BATCH_BYTES) {
+                    write(batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            flush();
+            if (stopping) {
+                close();
+                return;
+            }
+            LockSupport.parkNanos(properties.getFlushInterval().toNanos());
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        batch.setLength(0);
+        try {
+            if (out == null) {
+                open();
+            }
+            if (fileSize > 0 && fileSize + bytes.length > properties.getMaxFileSize()) {
+                roll();
+            }
+            out.write(bytes);
+            fileSize += bytes.length;
+        } catch (IOException e) {
+            log.warn("访问日志写入失败：{}", e.getMessage());
+            close();
+        }
+    }
+
+    private void open() throws IOException {
+        Path directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(properties.getFileName());
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(file);
+    }
+
+    /**
+     * 滚动：当前文件加时间后缀归档，清理超出保留数的历史文件，再打开新文件
+     */
+    private void roll() throws IOException {
+        close();
+        Path directory = Path.of(properties.getDirectory());
+        String suffix = LocalDateTime.now().format(ROLL_SUFFIX);
+        Files.move(directory.resolve(properties.getFileName()),
+                directory.resolve(properties.getFileName() + "." + suffix), StandardCopyOption.REPLACE_EXISTING);
+        deleteOldFiles(directory);
+        open();
+    }
+
+    private void deleteOldFiles(Path directory) throws IOException {
+        String prefix = properties.getFileName() + ".";
+        List<Path> history;
+        try (Stream<Path> files = Files.list(directory)) {
+            history = files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < history.size() - properties.getMaxHistory(); i++) {
+            Files.deleteIfExists(history.get(i));
+        }
+    }
+
+    private void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.warn("访问日志刷盘失败：{}", e.getMessage());
+        }
+    }
+
+    private void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("访问日志文件关闭失败：{}", e.getMessage());
+        }
+        out = null;
+    }
+
+    /**
+     * 访问日志记录（事件循环线程只创建该对象，格式化在后台线程完成）
+     *
+     * @param timestamp      请求开始时间（毫秒）
+     * @param method         请求方法
+     * @param path           请求路径（不含查询参数，避免记录敏感参数）
+     * @param status         响应状态码（或 cancelled）
+     * @param route          路由ID
+     * @param durationMicros 网关总耗时（微秒）
+     * @param upstreamMicros 下游耗时（微秒，未转发到下游时为 -1）
+     * @param bytesIn        请求体字节数
+     * @param bytesOut       响应体字节数
+     * @param clientIp       客户端IP
+     * @param userId         用户ID（未登录为 null）
+     */
+    public record AccessLogRecord(long timestamp, String method, String path, String status, String route,
+                                  long durationMicros, long upstreamMicros, long bytesIn, long bytesOut,
+                                  String clientIp, String userId) {
+
+        void appendJson(StringBuilder sb) {
+            sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toOffsetDateTime())
+                    .append("\",\"method\":\"").append(method)
+                    .append("\",\"path\":");
+            appendString(sb, path);
+            sb.append(",\"status\":\"").append(status)
+                    .append("\",\"route\":");
+            appendString(sb, route);
+            sb.append(",\"ms\":").append(durationMicros / 1000.0)
+                    .append(",\"upstreamMs\":").append(upstreamMicros < 0 ? "-1" : String.valueOf(upstreamMicros / 1000.0))
+                    .append(",\"in\":").append(bytesIn)
+                    .append(",\"out\":").append(bytesOut)
+                    .append(",\"ip\":");
+            appendString(sb, clientIp);
+            sb.append(",\"uid\":");
+            appendString(sb, userId);
+            sb.append('}');
+        }
+
+        private static void appendString(StringBuilder sb, String value) {
+            if (value == null) {
+                sb.append("null");
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> sb.append("\\\"");
+                    case '\\' -> sb.append("\\\\");
+                    default -> {
+                        if (c < 0x20) {
+                            sb.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            sb.append(c);
+                        }
+                    }
+                }
+            }
+            sb.append('"');
+        }
+    }
+}
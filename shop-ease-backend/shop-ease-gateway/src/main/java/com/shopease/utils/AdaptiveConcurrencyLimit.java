@@ -0,0 +1,108 @@
+package com.shopease.utils;
+
+import com.shopease.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发上限（单个路由）
+ * <p>
+ * 采用梯度算法：维护下游延迟的长期基线（指数加权平均），每个请求完成后用
+ * 梯度 = 容忍倍数 × 基线延迟 / 本次延迟（取值 0.5~1.0）缩放当前上限，再加上 √上限 的排队余量。
+ * 下游变慢时梯度小于 1，上限随之下降；延迟正常且并发接近上限时，上限按排队余量缓慢增长。
+ * 下游失败时按 backoff-ratio 乘性衰减。在途请求数未达上限一半时不增长，避免空闲时上限虚高。
+ *
+ * @author hspcadmin
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // 以下字段只在 synchronized 的 update 中读写
+    private double estimatedLimit;
+
+    private double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * 尝试占用一个并发名额（无锁）
+     *
+     * @return 是否获取成功；false 表示已达上限，应快速拒绝
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求完成，释放名额并用本次延迟调整上限
+     *
+     * @param rttNanos 本次请求耗时（纳秒）
+     * @param dropped  下游是否失败
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBefore, dropped);
+    }
+
+    /**
+     * 请求被取消（客户端断开等），只释放名额，不参与上限调整
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore, boolean dropped) {
+        double newLimit;
+        if (dropped) {
+            newLimit = estimatedLimit * properties.getBackoffRatio();
+        } else {
+            if (rttNanos <= 0) {
+                return;
+            }
+            // 1. 更新延迟基线；本次延迟远低于基线时（如下游恢复）让基线更快回落
+            if (baselineRttNanos == 0) {
+                baselineRttNanos = rttNanos;
+            } else {
+                baselineRttNanos += (rttNanos - baselineRttNanos) / Math.max(1, properties.getBaselineWindow());
+                if (baselineRttNanos / rttNanos > 2) {
+                    baselineRttNanos *= 0.95;
+                }
+            }
+            // 2. 并发远未达到上限时，延迟不能说明上限是否合适，不做调整
+            if (inFlightBefore < estimatedLimit / 2) {
+                return;
+            }
+            // 3. 梯度缩放 + 排队余量，再做平滑
+            double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * baselineRttNanos / rttNanos));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+        }
+        estimatedLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
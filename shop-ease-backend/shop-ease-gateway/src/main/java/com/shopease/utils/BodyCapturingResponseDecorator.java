@@ -0,0 +1,49 @@
+package com.shopease.utils;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Consumer;
+
+/**
+ * 聚合下游响应体的响应装饰器：写回客户端的同时把完整响应交给回调（缓存、合并请求等使用）
+ * <p>
+ * 仅适用于非流式的小响应（JSON接口），响应体会在内存中完整聚合一次。
+ *
+ * @author hspcadmin
+ */
+public class BodyCapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final Consumer<BufferedResponse> onCaptured;
+
+    private final String[] skipHeaders;
+
+    /**
+     * @param delegate    原始响应
+     * @param onCaptured  响应体聚合完成后的回调（在写回客户端之前调用）
+     * @param skipHeaders 回调中需要忽略的响应头（如网关自己写入的状态头）
+     */
+    public BodyCapturingResponseDecorator(ServerHttpResponse delegate, Consumer<BufferedResponse> onCaptured,
+                                          String... skipHeaders) {
+        super(delegate);
+        this.onCaptured = onCaptured;
+        this.skipHeaders = skipHeaders;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils.join(body).flatMap(joined -> {
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+            HttpStatusCode status = getStatusCode();
+            onCaptured.accept(BufferedResponse.of(status == null ? 200 : status.value(), getHeaders(), bytes, skipHeaders));
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        });
+    }
+}
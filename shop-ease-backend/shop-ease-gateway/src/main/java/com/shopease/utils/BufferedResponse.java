@@ -0,0 +1,77 @@
+package com.shopease.utils;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * 已完整读取的下游响应（状态码、可回放的响应头、响应体），可重复写回给多个客户端
+ *
+ * @param status  HTTP状态码
+ * @param headers 可回放的响应头（已去除逐跳头、Set-Cookie、Content-Length）
+ * @param body    响应体
+ * @author hspcadmin
+ */
+public record BufferedResponse(int status, HttpHeaders headers, byte[] body) {
+
+    /**
+     * 不回放的响应头（逐跳头、Cookie、长度由网关重新计算）
+     */
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase(),
+            "keep-alive"
+    );
+
+    /**
+     * 从下游响应构建（过滤不可回放的响应头）
+     *
+     * @param status       HTTP状态码
+     * @param source       下游响应头
+     * @param body         响应体
+     * @param skipHeaders  额外需要忽略的响应头（如网关自己写入的状态头）
+     * @return 可回放的响应
+     */
+    public static BufferedResponse of(int status, HttpHeaders source, byte[] body, String... skipHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase()) && !contains(skipHeaders, name)) {
+                headers.addAll(name, values);
+            }
+        });
+        return new BufferedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body);
+    }
+
+    /**
+     * 写回客户端（响应体字节数组只读共享，不复制）
+     * <p>
+     * 同名响应头整体覆盖而不是追加：客户端响应上已有网关写入的状态头（如 X-Cache: MISS），
+     * 回放的响应头中也可能带有同名头（合并请求的首个请求写入），追加会导致重复
+     *
+     * @param response 客户端响应
+     * @return 写回完成信号
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static boolean contains(String[] names, String name) {
+        for (String candidate : names) {
+            if (candidate.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
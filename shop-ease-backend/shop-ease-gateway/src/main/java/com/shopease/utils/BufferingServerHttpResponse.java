@@ -0,0 +1,74 @@
+package com.shopease.utils;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 不连接客户端的响应：状态码、响应头、响应体全部留在内存中，之后再决定是否写回客户端
+ * <p>
+ * 对冲请求的每次尝试各用一个，胜出的一份通过 {@link #toBufferedResponse()} 写回客户端。
+ * 仅适用于非流式的小响应（JSON接口）。
+ *
+ * @author hspcadmin
+ */
+public class BufferingServerHttpResponse extends AbstractServerHttpResponse {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private volatile byte[] body = EMPTY;
+
+    /**
+     * @param bufferFactory 客户端响应的 DataBufferFactory（转发过滤器按其类型包装下游数据）
+     */
+    public BufferingServerHttpResponse(DataBufferFactory bufferFactory) {
+        super(bufferFactory);
+    }
+
+    /**
+     * 已写入的完整响应（未写响应体时响应体为空）
+     */
+    public BufferedResponse toBufferedResponse() {
+        HttpStatusCode status = getStatusCode();
+        return BufferedResponse.of(status == null ? 200 : status.value(), getHeaders(), body);
+    }
+
+    @Override
+    public <T> T getNativeResponse() {
+        throw new IllegalStateException("缓冲响应没有底层连接");
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+        return DataBufferUtils.join(body)
+                .doOnNext(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    this.body = bytes;
+                })
+                .then();
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWithInternal(Flux.from(body).concatMap(Flux::from));
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+    }
+}
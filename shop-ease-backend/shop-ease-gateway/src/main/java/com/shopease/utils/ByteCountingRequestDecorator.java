@@ -0,0 +1,31 @@
+package com.shopease.utils;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计请求体字节数的请求装饰器
+ *
+ * @author hspcadmin
+ */
+public class ByteCountingRequestDecorator extends ServerHttpRequestDecorator {
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    public ByteCountingRequestDecorator(ServerHttpRequest delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Flux<DataBuffer> getBody() {
+        return super.getBody().doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()));
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+}
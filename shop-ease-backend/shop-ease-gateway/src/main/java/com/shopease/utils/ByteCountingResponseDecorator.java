@@ -0,0 +1,57 @@
+package com.shopease.utils;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计响应体字节数的响应装饰器
+ * <p>
+ * 同时实现 {@link ZeroCopyHttpOutputMessage}，保证装饰后本地文件仍可零拷贝写出。
+ *
+ * @author hspcadmin
+ */
+public class ByteCountingResponseDecorator extends ServerHttpResponseDecorator implements ZeroCopyHttpOutputMessage {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    public ByteCountingResponseDecorator(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount())));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return super.writeAndFlushWith(Flux.from(body)
+                .map(chunk -> Flux.from(chunk).doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))));
+    }
+
+    @Override
+    public Mono<Void> writeWith(Path file, long position, long count) {
+        bytes.addAndGet(count);
+        if (getDelegate() instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            return zeroCopy.writeWith(file, position, count);
+        }
+        return super.writeWith(DataBufferUtils.read(file, bufferFactory(), READ_BUFFER_SIZE)
+                .transform(buffers -> DataBufferUtils.skipUntilByteCount(buffers, position))
+                .transform(buffers -> DataBufferUtils.takeUntilByteCount(buffers, count)));
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+}
@@ -0,0 +1,167 @@
+package com.shopease.utils;
+
+import com.shopease.config.CircuitBreakerProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 熔断器（失败率 + 慢调用）
+ * <p>
+ * 关闭：统计滑动时间窗口内的请求数与失败数（5xx、异常、慢调用），失败率超过阈值时打开；
+ * 打开：直接拒绝请求，持续 open-duration 后进入半开；
+ * 半开：放行 half-open-calls 个探测请求，全部成功则关闭，任一失败重新打开。
+ * 窗口按固定数量的时间桶滚动，记录只锁单个桶。
+ *
+ * @author hspcadmin
+ */
+public class CircuitBreaker {
+
+    // 统计窗口的时间桶数
+    private static final int BUCKETS = 10;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final CircuitBreakerProperties properties;
+
+    private final Runnable onOpen;
+
+    private final Bucket[] buckets = new Bucket[BUCKETS];
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    private volatile long openedAt;
+
+    /**
+     * @param properties 熔断配置
+     * @param onOpen     熔断器打开时的回调（记录指标、日志）
+     */
+    public CircuitBreaker(CircuitBreakerProperties properties, Runnable onOpen) {
+        this.properties = properties;
+        this.onOpen = onOpen;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 尝试放行一个请求
+     *
+     * @return 是否放行；放行后必须调用 {@link #onResult} 或 {@link #release} 之一
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < properties.getOpenDuration().toNanos()) {
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(properties.getHalfOpenCalls());
+            }
+        }
+        // 半开：只放行有限个探测请求
+        return halfOpenPermits.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0;
+    }
+
+    /**
+     * 记录请求结果
+     *
+     * @param failed 是否失败（5xx、异常、慢调用）
+     */
+    public void onResult(boolean failed) {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            if (failed) {
+                open(State.HALF_OPEN);
+            } else if (halfOpenSuccesses.incrementAndGet() >= properties.getHalfOpenCalls()
+                    && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                reset();
+            }
+            return;
+        }
+        if (current == State.CLOSED) {
+            long bucketNanos = Math.max(1, properties.getWindow().toNanos() / BUCKETS);
+            long epoch = System.nanoTime() / bucketNanos;
+            buckets[(int) (epoch % BUCKETS)].record(epoch, failed);
+            if (failed && isFailureRateExceeded(epoch)) {
+                open(State.CLOSED);
+            }
+        }
+    }
+
+    /**
+     * 放行的请求没有产生可判断的结果（如未转发到下游、客户端取消），归还半开探测名额
+     */
+    public void release() {
+        if (state.get() == State.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private boolean isFailureRateExceeded(long epoch) {
+        long calls = 0;
+        long failures = 0;
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (epoch - bucket.epoch < BUCKETS) {
+                    calls += bucket.calls;
+                    failures += bucket.failures;
+                }
+            }
+        }
+        return calls >= properties.getMinimumCalls() && failures * 100 >= calls * properties.getFailureRateThreshold();
+    }
+
+    private void open(State expected) {
+        openedAt = System.nanoTime();
+        halfOpenPermits.set(0);
+        if (state.compareAndSet(expected, State.OPEN)) {
+            onOpen.run();
+        }
+    }
+
+    private void reset() {
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                bucket.epoch = -BUCKETS;
+                bucket.calls = 0;
+                bucket.failures = 0;
+            }
+        }
+    }
+
+    private static class Bucket {
+
+        private long epoch = -BUCKETS;
+
+        private long calls;
+
+        private long failures;
+
+        synchronized void record(long currentEpoch, boolean failed) {
+            if (epoch != currentEpoch) {
+                epoch = currentEpoch;
+                calls = 0;
+                failures = 0;
+            }
+            calls++;
+            if (failed) {
+                failures++;
+            }
+        }
+    }
+}
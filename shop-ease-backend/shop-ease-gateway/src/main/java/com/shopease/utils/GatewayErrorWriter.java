@@ -0,0 +1,145 @@
+package com.shopease.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopease.constans.Constant;
+import com.shopease.result.Result;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 网关错误响应输出工具（鉴权失败、限流、熔断等网关直接返回的错误统一使用，等候室排队结果同样由此输出）
+ * <p>
+ * 错误响应体只取决于提示信息，网关已知的提示信息在启动时序列化一次，之后每次输出只包装同一个字节数组
+ * （不经过 Jackson、不复制），并设置 Content-Length 避免分块传输。Token 失效风暴、撞库等场景下
+ * 401 响应不再产生序列化开销。配置中的提示信息（如熔断降级提示）首次使用时加入缓存。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class GatewayErrorWriter {
+
+    /**
+     * 未携带Token
+     */
+    public static final String UNAUTHORIZED = Constant.UNAUTH_MESSAGE;
+
+    /**
+     * Token格式错误
+     */
+    public static final String TOKEN_MALFORMED = "Token格式错误，请重新登录";
+
+    /**
+     * Token无效或过期
+     */
+    public static final String TOKEN_EXPIRED = "登录已过期，请重新登录";
+
+    /**
+     * Token已吊销（修改密码、退出登录）
+     */
+    public static final String TOKEN_REVOKED = "登录已失效，请重新登录";
+
+    /**
+     * 限流
+     */
+    public static final String TOO_MANY_REQUESTS = "请求过于频繁，请稍后再试";
+
+    /**
+     * 请求超时
+     */
+    public static final String TIMEOUT = "请求已超时，请稍后重试";
+
+    /**
+     * 并发已满
+     */
+    public static final String SERVICE_BUSY = "服务繁忙，请稍后再试";
+
+    /**
+     * 下游不可用
+     */
+    public static final String SERVICE_UNAVAILABLE = "服务暂时不可用，请稍后重试";
+
+    private static final List<String> KNOWN_MESSAGES = List.of(UNAUTHORIZED, TOKEN_MALFORMED, TOKEN_EXPIRED,
+            TOKEN_REVOKED, TOO_MANY_REQUESTS, TIMEOUT, SERVICE_BUSY, SERVICE_UNAVAILABLE);
+
+    /**
+     * 缓存的提示信息数量上限（超出后不再缓存，按次序列化）
+     */
+    private static final int MAX_CACHED_BODIES = 256;
+
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, byte[]> encodedBodies = new ConcurrentHashMap<>();
+
+    public GatewayErrorWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (String msg : KNOWN_MESSAGES) {
+            encodedBodies.put(msg, encode(Result.error(msg)));
+        }
+    }
+
+    /**
+     * 输出统一格式的错误响应（{@link Result#error(String)}，响应体已预先序列化）
+     *
+     * @param exchange 当前请求
+     * @param status   HTTP状态码
+     * @param msg      错误提示
+     * @return 写回完成信号
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String msg) {
+        byte[] body = encodedBodies.get(msg);
+        if (body == null) {
+            body = encode(Result.error(msg));
+            if (body != null && encodedBodies.size() < MAX_CACHED_BODIES) {
+                encodedBodies.putIfAbsent(msg, body);
+            }
+        }
+        return write(exchange.getResponse(), status, body);
+    }
+
+    /**
+     * 输出统一格式的响应（如等候室的排队结果，每次序列化）
+     *
+     * @param exchange 当前请求
+     * @param status   HTTP状态码
+     * @param result   响应结果
+     * @return 写回完成信号
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, Result<?> result) {
+        return write(exchange.getResponse(), status, encode(result));
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, HttpStatus status, byte[] body) {
+        response.setStatusCode(status);
+        if (body == null) {
+            return response.setComplete();
+        }
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(JSON_UTF8);
+        headers.setContentLength(body.length);
+        // 只读包装共享的字节数组，不复制
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private byte[] encode(Result<?> result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.shopease.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 网关请求指标（按路由、状态码）
+ * <p>
+ * 延迟使用 Micrometer Timer 记录，分位数由其内部的 HdrHistogram 在滑动时间窗口内计算（p50/p95/p99/p999，p95 同时用作对冲延迟），
+ * 记录过程无锁。指标按路由缓存在 {@link RouteMetrics} 中，状态码直接作为数组下标查找 Timer，请求路径上不拼接字符串、不创建对象。
+ * 指标：gateway.requests{route,status}（网关总耗时）、gateway.upstream{route}（下游耗时，至收到响应头）、
+ * gateway.internal{route}（网关内部耗时 = 总耗时 - 下游耗时）、gateway.request.bytes / gateway.response.bytes{route}
+ *
+ * @author hspcadmin
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final double[] PERCENTILES = {0.5, 0.95, 0.99, 0.999};
+
+    /**
+     * 请求被取消（客户端断开或超时）时使用的状态码
+     */
+    public static final int STATUS_CANCELLED = 0;
+
+    // 分位数统计的滑动窗口
+    private static final Duration PERCENTILE_EXPIRY = Duration.ofMinutes(1);
+
+    // 状态码上限（Spring 允许 100~999）
+    private static final int MAX_STATUS = 999;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param route         路由ID
+     * @param status        状态码（取消时为 {@link #STATUS_CANCELLED}）
+     * @param totalNanos    网关总耗时
+     * @param upstreamNanos 下游耗时（未转发到下游时为 -1）
+     * @param bytesIn       请求体字节数
+     * @param bytesOut      响应体字节数
+     */
+    public void record(String route, int status, long totalNanos, long upstreamNanos, long bytesIn, long bytesOut) {
+        RouteMetrics metrics = routes.get(route);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(route, RouteMetrics::new);
+        }
+        metrics.requestTimer(status).record(totalNanos, TimeUnit.NANOSECONDS);
+        if (upstreamNanos >= 0) {
+            metrics.upstreamTimer().record(upstreamNanos, TimeUnit.NANOSECONDS);
+            metrics.internalTimer().record(Math.max(0, totalNanos - upstreamNanos), TimeUnit.NANOSECONDS);
+        }
+        metrics.requestBytes.record(bytesIn);
+        metrics.responseBytes.record(bytesOut);
+    }
+
+    /**
+     * 各路由的指标（路由ID -> 指标）
+     */
+    public Map<String, RouteMetrics> routes() {
+        return Collections.unmodifiableMap(routes);
+    }
+
+    /**
+     * 路由的下游耗时 Timer（该路由尚未转发过请求时返回 null）
+     */
+    public Timer upstreamTimer(String route) {
+        RouteMetrics metrics = routes.get(route);
+        return metrics == null ? null : metrics.upstream;
+    }
+
+    /**
+     * 创建带分位数统计的 Timer（同名同标签重复注册时返回已有实例）
+     */
+    public Timer timer(String name, String route, String... tags) {
+        return Timer.builder(name)
+                .tag("route", route)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .distributionStatisticExpiry(PERCENTILE_EXPIRY)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String route) {
+        return DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    private static String statusTag(int status) {
+        return status == STATUS_CANCELLED ? "cancelled" : String.valueOf(status);
+    }
+
+    /**
+     * 单个路由的指标：按状态码的请求 Timer（数组下标即状态码，首次出现时创建）、下游/内部耗时 Timer（首次转发时创建）、请求/响应字节数
+     */
+    public final class RouteMetrics {
+
+        private final String route;
+
+        private final AtomicReferenceArray<Timer> requestTimers = new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+        private final DistributionSummary requestBytes;
+
+        private final DistributionSummary responseBytes;
+
+        private volatile Timer upstream;
+
+        private volatile Timer internal;
+
+        private RouteMetrics(String route) {
+            this.route = route;
+            this.requestBytes = summary("gateway.request.bytes", route);
+            this.responseBytes = summary("gateway.response.bytes", route);
+        }
+
+        private Timer requestTimer(int status) {
+            int index = status >= 0 && status <= MAX_STATUS ? status : 500;
+            Timer timer = requestTimers.get(index);
+            if (timer == null) {
+                // 并发创建时 Micrometer 返回同一实例，无需加锁
+                timer = timer("gateway.requests", route, "status", statusTag(index));
+                requestTimers.set(index, timer);
+            }
+            return timer;
+        }
+
+        private Timer upstreamTimer() {
+            Timer timer = upstream;
+            if (timer == null) {
+                timer = timer("gateway.upstream", route);
+                upstream = timer;
+            }
+            return timer;
+        }
+
+        private Timer internalTimer() {
+            Timer timer = internal;
+            if (timer == null) {
+                timer = timer("gateway.internal", route);
+                internal = timer;
+            }
+            return timer;
+        }
+
+        /**
+         * 按状态码的请求 Timer（状态码标签 -> Timer，仅包含出现过的状态码）
+         */
+        public Map<String, Timer> requestTimers() {
+            Map<String, Timer> timers = new TreeMap<>();
+            for (int status = 0; status <= MAX_STATUS; status++) {
+                Timer timer = requestTimers.get(status);
+                if (timer != null) {
+                    timers.put(statusTag(status), timer);
+                }
+            }
+            return timers;
+        }
+
+        /**
+         * 下游耗时（尚未转发过请求时为 null）
+         */
+        public Timer upstream() {
+            return upstream;
+        }
+
+        /**
+         * 网关内部耗时（尚未转发过请求时为 null）
+         */
+        public Timer internal() {
+            return internal;
+        }
+
+        public DistributionSummary requestBytes() {
+            return requestBytes;
+        }
+
+        public DistributionSummary responseBytes() {
+            return responseBytes;
+        }
+    }
+}
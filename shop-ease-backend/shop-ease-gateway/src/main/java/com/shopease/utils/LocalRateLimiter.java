@@ -0,0 +1,63 @@
+package com.shopease.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopease.config.RateLimitProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单机无锁令牌桶（GCRA 算法）
+ * <p>
+ * 每个令牌桶只保存一个"理论到达时间"（TAT），获取令牌时 CAS 更新，不加锁、不分配对象。
+ * 长时间未访问的令牌桶已恢复为满桶，直接淘汰即可。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public LocalRateLimiter(RateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @Override
+    public Mono<Long> tryAcquire(String key, double replenishRate, int burstCapacity, int cost) {
+        return Mono.just(acquire(key, replenishRate, burstCapacity, cost));
+    }
+
+    /**
+     * 同步获取令牌
+     *
+     * @return 0 表示放行；大于 0 为建议的重试等待毫秒数
+     */
+    public long acquire(String key, double replenishRate, int burstCapacity, int cost) {
+        // 每个令牌的间隔、允许的突发量、本次请求的增量（纳秒）
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / replenishRate);
+        long tolerance = interval * burstCapacity;
+        long increment = interval * cost;
+
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long newTat = Math.max(current, now) + increment;
+            long overflow = newTat - now - tolerance;
+            if (overflow > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(overflow));
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return 0;
+            }
+        }
+    }
+}
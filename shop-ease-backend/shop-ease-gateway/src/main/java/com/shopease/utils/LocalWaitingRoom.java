@@ -0,0 +1,165 @@
+package com.shopease.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shopease.config.WaitingRoomProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单机等候室（排队状态保存在网关内存）
+ * <p>
+ * 排队号按 队列 + 身份 保存在 Caffeine 中：排队中的号每次轮询续期 ticketTtl，放行后保留 passTtl。
+ * 每个队列的发号与游标推进在队列对象上加锁，临界区只有几次算术运算。
+ * 队列长度注册为指标 gateway.waiting_room.length{room}。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class LocalWaitingRoom implements WaitingRoom {
+
+    private final WaitingRoomProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Queue> queues = new ConcurrentHashMap<>();
+
+    private final Cache<String, Ticket> tickets;
+
+    public LocalWaitingRoom(WaitingRoomProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTickets())
+                .expireAfter(new TicketExpiry())
+                .build();
+    }
+
+    @Override
+    public Mono<Admission> enter(String room, String identity, double rate, int burst) {
+        return Mono.just(admit(room, identity, rate, burst));
+    }
+
+    /**
+     * 同步进入等候室
+     */
+    public Admission admit(String room, String identity, double rate, int burst) {
+        long now = System.nanoTime();
+        String key = room + ":" + identity;
+        Ticket ticket = tickets.getIfPresent(key);
+        // 1. 已放行且未过期，直接通过
+        if (ticket != null && ticket.admittedAt() != Ticket.WAITING) {
+            if (now - ticket.admittedAt() < properties.getPassTtl().toNanos()) {
+                return new Admission(true, ticket.number(), 0);
+            }
+            tickets.invalidate(key);
+            ticket = null;
+        }
+
+        // 2. 推进放行游标，新来的请求领取排队号
+        Queue queue = queues.computeIfAbsent(room, this::newQueue);
+        long number;
+        double cursor;
+        synchronized (queue) {
+            queue.advance(now, rate, burst);
+            number = ticket == null ? ++queue.issued : ticket.number();
+            cursor = queue.cursor;
+        }
+
+        // 3. 排队号不大于游标即放行
+        if (number <= cursor) {
+            tickets.put(key, new Ticket(number, now));
+            return new Admission(true, number, 0);
+        }
+        if (ticket == null) {
+            tickets.put(key, new Ticket(number, Ticket.WAITING));
+        }
+        return new Admission(false, number, number - (long) cursor - 1);
+    }
+
+    private Queue newQueue(String room) {
+        Queue queue = new Queue(System.nanoTime());
+        Gauge.builder("gateway.waiting_room.length", queue, Queue::length)
+                .description("等候室排队人数（含已离开但排队号未到的）")
+                .tag("room", room)
+                .register(meterRegistry);
+        return queue;
+    }
+
+    /**
+     * 队列状态：已发放的排队号、放行游标（可放行的最大排队号）
+     */
+    private static final class Queue {
+
+        private long issued;
+
+        private double cursor = Double.NaN;
+
+        private long updatedAt;
+
+        private Queue(long now) {
+            this.updatedAt = now;
+        }
+
+        private void advance(long now, double rate, int burst) {
+            if (Double.isNaN(cursor)) {
+                cursor = burst;
+            }
+            // 并发请求取到的时间可能早于上次更新时间，游标只前进
+            if (now > updatedAt) {
+                double elapsed = (now - updatedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+                cursor += elapsed * rate;
+                updatedAt = now;
+            }
+            cursor = Math.min(cursor, issued + burst);
+        }
+
+        private synchronized double length() {
+            return Double.isNaN(cursor) ? 0 : Math.max(0, issued - Math.floor(cursor));
+        }
+    }
+
+    /**
+     * 排队号
+     *
+     * @param number     排队号
+     * @param admittedAt 放行时间（纳秒），排队中为 {@link #WAITING}
+     */
+    private record Ticket(long number, long admittedAt) {
+
+        private static final long WAITING = Long.MIN_VALUE;
+    }
+
+    /**
+     * 排队中的号按最后轮询时间过期，已放行的号按放行时间过期
+     */
+    private final class TicketExpiry implements Expiry<String, Ticket> {
+
+        @Override
+        public long expireAfterCreate(String key, Ticket ticket, long currentTime) {
+            return ticketTtl(ticket);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Ticket ticket, long currentTime, long currentDuration) {
+            return ticketTtl(ticket);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Ticket ticket, long currentTime, long currentDuration) {
+            return ticket.admittedAt() == Ticket.WAITING ? properties.getTicketTtl().toNanos() : currentDuration;
+        }
+
+        private long ticketTtl(Ticket ticket) {
+            return ticket.admittedAt() == Ticket.WAITING
+                    ? properties.getTicketTtl().toNanos() : properties.getPassTtl().toNanos();
+        }
+    }
+}
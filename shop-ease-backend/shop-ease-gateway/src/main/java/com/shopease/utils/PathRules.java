@@ -0,0 +1,112 @@
+package com.shopease.utils;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按路径匹配的规则表（网关各类按路由配置的通用匹配工具）
+ * <p>
+ * 规则中的路径（PathPattern 语法）在编译时一次性解析，匹配时按配置顺序返回第一条命中的规则。
+ * 记录编译来源列表的引用，配置刷新重新绑定后可通过 {@link #isCompiledFrom(List)} 判断是否需要重新编译。
+ *
+ * @param <T> 规则类型
+ * @author hspcadmin
+ */
+public final class PathRules<T> {
+
+    private final List<T> source;
+
+    private final PathPattern[] patterns;
+
+    private final List<T> rules;
+
+    private PathRules(List<T> source, PathPattern[] patterns, List<T> rules) {
+        this.source = source;
+        this.patterns = patterns;
+        this.rules = rules;
+    }
+
+    /**
+     * 编译规则表
+     *
+     * @param source 配置中的规则列表（可为null）
+     * @param pathOf 获取规则路径的方法
+     * @param <T>    规则类型
+     * @return 编译后的规则表
+     */
+    public static <T> PathRules<T> compile(List<T> source, Function<T, String> pathOf) {
+        List<PathPattern> patterns = new ArrayList<>();
+        List<T> rules = new ArrayList<>();
+        if (source != null) {
+            for (T rule : source) {
+                String path = rule == null ? null : pathOf.apply(rule);
+                if (path == null || path.isBlank()) {
+                    continue;
+                }
+                patterns.add(PathPatternParser.defaultInstance.parse(path.trim()));
+                rules.add(rule);
+            }
+        }
+        return new PathRules<>(source, patterns.toArray(new PathPattern[0]), List.copyOf(rules));
+    }
+
+    /**
+     * 查找第一条匹配的规则
+     *
+     * @param path 请求路径
+     * @return 命中的规则；无匹配时返回null
+     */
+    public T match(PathContainer path) {
+        for (int i = 0; i < patterns.length; i++) {
+            if (patterns[i].matches(path)) {
+                return rules.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查找第一条匹配的规则，并提取路径变量（如 /goods/{id} 中的 id）
+     *
+     * @param path 请求路径
+     * @return 命中的规则与路径变量；无匹配时返回null
+     */
+    public Matched<T> matchAndExtract(PathContainer path) {
+        for (int i = 0; i < patterns.length; i++) {
+            PathPattern.PathMatchInfo info = patterns[i].matchAndExtract(path);
+            if (info != null) {
+                return new Matched<>(rules.get(i), info.getUriVariables());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 是否由指定的配置列表编译而来（按引用判断）
+     */
+    public boolean isCompiledFrom(List<T> source) {
+        return this.source == source;
+    }
+
+    /**
+     * 规则表是否为空
+     */
+    public boolean isEmpty() {
+        return patterns.length == 0;
+    }
+
+    /**
+     * 匹配结果
+     *
+     * @param rule      命中的规则
+     * @param variables 路径变量
+     */
+    public record Matched<T>(T rule, Map<String, String> variables) {
+    }
+}
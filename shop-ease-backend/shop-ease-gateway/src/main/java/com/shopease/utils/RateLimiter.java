@@ -0,0 +1,22 @@
+package com.shopease.utils;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 令牌桶限流器
+ *
+ * @author hspcadmin
+ */
+public interface RateLimiter {
+
+    /**
+     * 尝试从令牌桶中获取令牌
+     *
+     * @param key           令牌桶Key（如 user:1:default）
+     * @param replenishRate 每秒补充的令牌数
+     * @param burstCapacity 桶容量
+     * @param cost          本次消耗的令牌数
+     * @return 0 表示放行；大于 0 表示被拒绝，值为建议的重试等待毫秒数
+     */
+    Mono<Long> tryAcquire(String key, double replenishRate, int burstCapacity, int cost);
+}
@@ -0,0 +1,67 @@
+package com.shopease.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Redis 共享令牌桶（GCRA 算法，Lua 脚本原子执行，多网关节点共享限流状态）
+ * <p>
+ * 通过 shopease-redis 模块的 {@link RedisUtil} 执行脚本，时间取自 Redis 服务端（TIME），
+ * 避免各网关节点时钟不一致。RedisTemplate 为阻塞调用，切换到 boundedElastic 线程执行，不阻塞事件循环。
+ * Redis 不可用时放行（限流失效优于整站不可用）。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "shopease:gateway:rate_limit:";
+
+    /**
+     * KEYS[1]: 令牌桶Key；ARGV[1]: 令牌间隔（微秒）；ARGV[2]: 突发容量（微秒）；ARGV[3]: 消耗令牌数
+     * 返回 0 表示放行，大于 0 为需要等待的微秒数
+     */
+    private static final RedisScript<Long> SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local interval = tonumber(ARGV[1])
+            local tolerance = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then
+                tat = now
+            end
+            local new_tat = tat + interval * tonumber(ARGV[3])
+            local overflow = new_tat - now - tolerance
+            if overflow > 0 then
+                return math.ceil(overflow)
+            end
+            redis.call('SET', KEYS[1], string.format('%d', new_tat), 'PX', math.ceil((new_tat - now) / 1000) + 1)
+            return 0
+            """, Long.class);
+
+    private final RedisUtil redisUtil;
+
+    public RedisRateLimiter(RedisUtil redisUtil) {
+        this.redisUtil = redisUtil;
+    }
+
+    @Override
+    public Mono<Long> tryAcquire(String key, double replenishRate, int burstCapacity, int cost) {
+        long interval = (long) (1_000_000 / replenishRate);
+        long tolerance = interval * burstCapacity;
+        return Mono.fromCallable(() -> redisUtil.execute(SCRIPT, List.of(KEY_PREFIX + key),
+                        String.valueOf(interval), String.valueOf(tolerance), String.valueOf(cost)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(waitMicros -> waitMicros <= 0 ? 0L : Math.max(1L, waitMicros / 1000))
+                .onErrorResume(e -> {
+                    log.warn("Redis限流脚本执行失败，本次请求放行：{}", e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+}
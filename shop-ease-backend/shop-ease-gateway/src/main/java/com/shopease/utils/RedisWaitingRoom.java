@@ -0,0 +1,101 @@
+package com.shopease.utils;
+
+import com.shopease.config.WaitingRoomProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Redis 共享等候室（Lua 脚本原子执行，多网关节点共享排队顺序）
+ * <p>
+ * 队列状态（已发放排队号、放行游标、更新时间）与排队号分别保存为 Hash，Key 使用同一个 hash tag，
+ * 集群模式下落在同一个槽位。时间取自 Redis 服务端（TIME），Redis 不可用时放行（与限流一致）。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class RedisWaitingRoom implements WaitingRoom {
+
+    private static final String KEY_PREFIX = "shopease:gateway:waiting_room:";
+
+    /**
+     * 队列状态的过期时间（毫秒）：一天无人访问后清理
+     */
+    private static final String QUEUE_TTL_MILLIS = "86400000";
+
+    /**
+     * KEYS[1]: 队列状态Key；KEYS[2]: 排队号Key
+     * ARGV[1]: 每秒放行人数；ARGV[2]: 突发放行人数；ARGV[3]: 排队号有效期（毫秒）；ARGV[4]: 放行有效期（毫秒）；ARGV[5]: 队列状态有效期（毫秒）
+     * 返回 {是否放行(1/0), 排队号, 前面人数}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local rate = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local ticket = redis.call('HMGET', KEYS[2], 'number', 'admitted')
+            local number = tonumber(ticket[1])
+            local admitted = tonumber(ticket[2])
+            if admitted then
+                if now - admitted < tonumber(ARGV[4]) then
+                    return {1, number, 0}
+                end
+                redis.call('DEL', KEYS[2])
+                number = nil
+            end
+            local state = redis.call('HMGET', KEYS[1], 'issued', 'cursor', 'updated')
+            local issued = tonumber(state[1]) or 0
+            local cursor = tonumber(state[2]) or burst
+            local updated = tonumber(state[3]) or now
+            cursor = math.min(cursor + math.max(now - updated, 0) * rate / 1000, issued + burst)
+            if not number then
+                issued = issued + 1
+                number = issued
+            end
+            redis.call('HSET', KEYS[1], 'issued', string.format('%d', issued), 'cursor', tostring(cursor),
+                'updated', string.format('%d', now))
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            if number <= cursor then
+                redis.call('HSET', KEYS[2], 'number', string.format('%d', number), 'admitted', string.format('%d', now))
+                redis.call('PEXPIRE', KEYS[2], ARGV[4])
+                return {1, number, 0}
+            end
+            redis.call('HSET', KEYS[2], 'number', string.format('%d', number))
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            return {0, number, number - math.floor(cursor) - 1}
+            """, List.class);
+
+    private final WaitingRoomProperties properties;
+
+    private final RedisUtil redisUtil;
+
+    public RedisWaitingRoom(WaitingRoomProperties properties, RedisUtil redisUtil) {
+        this.properties = properties;
+        this.redisUtil = redisUtil;
+    }
+
+    @Override
+    public Mono<Admission> enter(String room, String identity, double rate, int burst) {
+        String tag = KEY_PREFIX + "{" + room + "}";
+        List<String> keys = List.of(tag + ":queue", tag + ":ticket:" + identity);
+        return Mono.fromCallable(() -> redisUtil.execute(SCRIPT, keys, String.valueOf(rate), String.valueOf(burst),
+                        String.valueOf(properties.getTicketTtl().toMillis()),
+                        String.valueOf(properties.getPassTtl().toMillis()), QUEUE_TTL_MILLIS))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(result -> new Admission(toLong(result.get(0)) == 1, toLong(result.get(1)), toLong(result.get(2))))
+                .onErrorResume(e -> {
+                    log.warn("Redis等候室脚本执行失败，本次请求放行：{}", e.getMessage());
+                    return Mono.just(Admission.PASS);
+                });
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
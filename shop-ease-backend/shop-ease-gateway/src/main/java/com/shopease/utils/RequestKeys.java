@@ -0,0 +1,95 @@
+package com.shopease.utils;
+
+import com.shopease.constans.Constant;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 请求标识工具类（网关缓存、合并请求、限流、等候室使用）
+ *
+ * @author hspcadmin
+ */
+public final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    /**
+     * 生成规范化的请求Key：方法 + 路径 + 查询参数（参数名、参数值排序，忽略空值）
+     * <p>
+     * 例如 GET /goods/list?size=10&amp;current=1&amp;keyword= 与 GET /goods/list?current=1&amp;size=10
+     * 生成相同的Key：GET /goods/list?current=1&amp;size=10
+     *
+     * @param request 请求
+     * @return 规范化后的Key
+     */
+    public static String normalized(ServerHttpRequest request) {
+        return normalized(request.getMethod(), request.getPath().value(), request.getQueryParams());
+    }
+
+    /**
+     * 生成规范化的请求Key（网关自己发起的请求使用，如聚合接口的子请求）
+     *
+     * @param method      请求方法
+     * @param path        请求路径
+     * @param queryParams 查询参数（已解码）
+     * @return 规范化后的Key
+     */
+    public static String normalized(HttpMethod method, String path, MultiValueMap<String, String> queryParams) {
+        StringBuilder key = new StringBuilder(method.name())
+                .append(' ')
+                .append(path);
+        if (queryParams.isEmpty()) {
+            return key.toString();
+        }
+        TreeMap<String, List<String>> sorted = new TreeMap<>();
+        queryParams.forEach((name, values) -> {
+            List<String> nonEmpty = new ArrayList<>();
+            for (String value : values) {
+                if (value != null && !value.isEmpty()) {
+                    nonEmpty.add(value);
+                }
+            }
+            if (!nonEmpty.isEmpty()) {
+                nonEmpty.sort(null);
+                sorted.put(name, nonEmpty);
+            }
+        });
+        char separator = '?';
+        for (Map.Entry<String, List<String>> entry : sorted.entrySet()) {
+            String name = UriUtils.encodeQueryParam(entry.getKey(), StandardCharsets.UTF_8);
+            for (String value : entry.getValue()) {
+                key.append(separator).append(name).append('=')
+                        .append(UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 请求方身份：已登录用户按用户ID（由 JwtAuthFilter 验签后写入），否则按客户端IP
+     *
+     * @param request 请求
+     * @return 身份标识（如 user:1、ip:127.0.0.1）
+     */
+    public static String identity(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst(Constant.USER_ID_HEADER);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String ip = remoteAddress == null || remoteAddress.getAddress() == null
+                ? "unknown" : remoteAddress.getAddress().getHostAddress();
+        return "ip:" + ip;
+    }
+}
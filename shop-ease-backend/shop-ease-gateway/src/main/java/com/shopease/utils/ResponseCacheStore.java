@@ -0,0 +1,121 @@
+package com.shopease.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shopease.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关响应缓存存储（内存层）
+ * <p>
+ * 按响应体字节数加权，总容量超过 shopease.gateway.response-cache.max-bytes 时淘汰；
+ * 每个条目按所属路由规则的TTL过期。
+ * 指标：cache.gets{cache=gateway.response, result=hit|miss}、cache.evictions 等
+ *
+ * @author hspcadmin
+ */
+@Component
+public class ResponseCacheStore {
+
+    private static final String CACHE_NAME = "gateway.response";
+
+    private final Cache<String, CachedResponse> cache;
+
+    public ResponseCacheStore(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.response().body().length)
+                .expireAfter(new TtlExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * 清除缓存
+     *
+     * @param pathPrefix 请求路径前缀（如 /goods/1），为空时清除全部
+     * @return 清除的条目数
+     */
+    public long purge(String pathPrefix) {
+        if (pathPrefix == null || pathPrefix.isBlank()) {
+            long size = cache.estimatedSize();
+            cache.invalidateAll();
+            return size;
+        }
+        // 缓存Key以 "GET " + 路径 开头
+        String keyPrefix = "GET " + pathPrefix;
+        long removed = 0;
+        for (String key : cache.asMap().keySet()) {
+            if (key.startsWith(keyPrefix)) {
+                cache.invalidate(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 当前条目数（估算值）
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 当前占用字节数
+     */
+    public long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * 缓存的响应
+     *
+     * @param response  下游响应
+     * @param createdAt 写入时间（毫秒，用于计算Age）
+     * @param ttl       缓存时间
+     */
+    public record CachedResponse(BufferedResponse response, long createdAt, Duration ttl) {
+
+        /**
+         * 已缓存的秒数（Age响应头）
+         */
+        public long ageSeconds() {
+            return Math.max(0, (System.currentTimeMillis() - createdAt) / 1000);
+        }
+    }
+
+    private static class TtlExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttl().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.shopease.utils;
+
+import com.shopease.config.TokenRevocationProperties;
+import com.shopease.constans.Constant;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已吊销Token列表（网关内存）
+ * <p>
+ * 吊销记录分两种：user:用户ID（该用户在吊销时间之前签发的所有Token，修改密码时发布）、
+ * token:Token ID（单个Token，退出登录时发布）。鉴权时先查布隆过滤器，绝大多数未吊销的请求只读几个位即返回；
+ * 布隆过滤器命中时再查精确集合，排除误判。
+ * <p>
+ * 吊销消息通过 Redis 频道 {@link Constant#TOKEN_REVOCATION_CHANNEL} 实时推送；启动时及每个对账周期
+ * 从快照 {@link Constant#TOKEN_REVOCATION_KEY} 全量重建（补齐断线期间丢失的消息，清理超过 Access Token 有效期的记录）。
+ * 订阅在对账任务中建立，Redis 不可用时不阻塞网关启动，下个周期重试；已订阅后断线由订阅容器自动重连。
+ * Redis 不可用时保留已有记录，不影响鉴权。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements MessageListener, SmartLifecycle {
+
+    private static final String USER_PREFIX = "user:";
+
+    private static final String TOKEN_PREFIX = "token:";
+
+    /**
+     * KEYS[1]: 快照Key；ARGV[1]: 保留下限（毫秒）
+     * 返回 {成员1, 分数1, 成员2, 分数2, ...}（只读，过期记录由 user-service 发布时清理）
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SNAPSHOT_SCRIPT = RedisScript.of("""
+            return redis.call('ZRANGEBYSCORE', KEYS[1], ARGV[1], '+inf', 'WITHSCORES')
+            """, List.class);
+
+    private final TokenRevocationProperties properties;
+
+    private final RedisUtil redisUtil;
+
+    private volatile Revocations revocations;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile Disposable resyncTask;
+
+    /**
+     * 依赖 {@link JwtUtils}：保证 Access Token 有效期已注入后再开始对账
+     */
+    public TokenRevocationList(TokenRevocationProperties properties, RedisUtil redisUtil, JwtUtils jwtUtils,
+                               RedisConnectionFactory redisConnectionFactory, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisUtil = redisUtil;
+        this.revocations = new Revocations(properties);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(redisConnectionFactory);
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(Constant.TOKEN_REVOCATION_CHANNEL));
+        this.listenerContainer.afterPropertiesSet();
+        Gauge.builder("gateway.jwt.revocations", this, list -> list.revocations.revokedAt.size())
+                .description("网关内存中的Token吊销记录数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动对账任务（订阅频道并读取快照）
+     */
+    @Override
+    public void start() {
+        if (properties.isEnabled()) {
+            resyncTask = Schedulers.boundedElastic().schedulePeriodically(this::subscribeAndResync, 0,
+                    properties.getResyncInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 停止对账并取消订阅（先于 Redis 连接工厂停止，保证能正常退订）
+     */
+    @Override
+    public void stop() {
+        Disposable task = resyncTask;
+        if (task != null) {
+            task.dispose();
+            resyncTask = null;
+        }
+        listenerContainer.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return resyncTask != null;
+    }
+
+    /**
+     * 判断已验签的Token是否已被吊销
+     *
+     * @param claims Token载荷
+     * @return true：已吊销
+     */
+    public boolean isRevoked(Claims claims) {
+        Revocations current = revocations;
+        if (!properties.isEnabled() || current.revokedAt.isEmpty()) {
+            return false;
+        }
+        // 1. 按用户吊销：签发时间不晚于吊销时间（iat 精确到秒，吊销后同一秒内签发的Token一并拒绝）
+        Object userId = claims.get("userId");
+        if (userId != null) {
+            Long revokedAt = current.get(USER_PREFIX + userId);
+            if (revokedAt != null) {
+                Date issuedAt = claims.getIssuedAt();
+                // 没有签发时间的旧Token按已吊销处理
+                if (issuedAt == null || issuedAt.getTime() <= revokedAt) {
+                    return true;
+                }
+            }
+        }
+        // 2. 按Token ID吊销
+        String tokenId = claims.getId();
+        return tokenId != null && current.get(TOKEN_PREFIX + tokenId) != null;
+    }
+
+    /**
+     * 接收吊销消息："吊销对象 吊销时间毫秒"
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(' ');
+        try {
+            revoke(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            log.warn("无法解析Token吊销消息：{}", body);
+        }
+    }
+
+    /**
+     * 加入吊销记录（同一对象保留最晚的吊销时间）
+     */
+    public synchronized void revoke(String subject, long revokedAt) {
+        revocations.put(subject, revokedAt);
+    }
+
+    /**
+     * 对账任务：未订阅时先订阅（先订阅再读快照，两者之间发布的消息不会丢失），再重建吊销记录
+     */
+    private void subscribeAndResync() {
+        if (!listenerContainer.isRunning()) {
+            try {
+                listenerContainer.start();
+                log.info("已订阅Token吊销频道：{}", Constant.TOKEN_REVOCATION_CHANNEL);
+            } catch (Exception e) {
+                listenerContainer.stop();
+                log.warn("订阅Token吊销频道失败，下个对账周期重试：{}", e.getMessage());
+            }
+        }
+        resync();
+    }
+
+    /**
+     * 从 Redis 快照重建吊销记录（布隆过滤器只增不删，过期记录在重建时清理）
+     */
+    public void resync() {
+        long floor = System.currentTimeMillis() - JwtUtils.getAccessTokenExpiration();
+        List<?> snapshot;
+        try {
+            snapshot = redisUtil.execute(SNAPSHOT_SCRIPT, List.of(Constant.TOKEN_REVOCATION_KEY), String.valueOf(floor));
+        } catch (Exception e) {
+            log.warn("读取Token吊销快照失败，沿用内存中的吊销记录：{}", e.getMessage());
+            return;
+        }
+        Revocations rebuilt = new Revocations(properties);
+        for (int i = 0; snapshot != null && i + 1 < snapshot.size(); i += 2) {
+            rebuilt.put(String.valueOf(snapshot.get(i)), (long) Double.parseDouble(String.valueOf(snapshot.get(i + 1))));
+        }
+        synchronized (this) {
+            // 读取快照期间收到的推送消息（快照中可能还没有）
+            revocations.revokedAt.forEach((subject, revokedAt) -> {
+                if (revokedAt >= floor) {
+                    rebuilt.put(subject, revokedAt);
+                }
+            });
+            revocations = rebuilt;
+        }
+        log.debug("Token吊销记录已对账，共{}条", rebuilt.revokedAt.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * 布隆过滤器 + 精确集合（吊销对象 -> 吊销时间毫秒）
+     */
+    private static final class Revocations {
+
+        private final BloomFilter bloomFilter;
+
+        private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+        private Revocations(TokenRevocationProperties properties) {
+            this.bloomFilter = new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+        }
+
+        private void put(String subject, long time) {
+            revokedAt.merge(subject, time, Math::max);
+            bloomFilter.put(subject);
+        }
+
+        private Long get(String subject) {
+            return bloomFilter.mightContain(subject) ? revokedAt.get(subject) : null;
+        }
+    }
+}
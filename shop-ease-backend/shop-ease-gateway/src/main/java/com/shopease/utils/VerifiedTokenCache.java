@@ -0,0 +1,154 @@
+package com.shopease.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shopease.config.JwtCacheProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证Token缓存（网关专用）
+ * <p>
+ * 同一个Access Token在30分钟有效期内会被反复携带，缓存其验签后的Claims，
+ * 命中时跳过HMAC验签与载荷解析。缓存Key为Token的SHA-256摘要（不在内存中保存Token原文），
+ * 每个条目在Token的exp时刻过期，只缓存验证通过的Token。
+ * 命中/未命中指标：cache.gets{cache=gateway.jwt.verified, result=hit|miss}；
+ * 验签耗时指标：gateway.jwt.verify{cache=hit|miss}
+ *
+ * @author hspcadmin
+ */
+@Component
+public class VerifiedTokenCache implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final String CACHE_NAME = "gateway.jwt.verified";
+
+    private final JwtCacheProperties properties;
+
+    private final Cache<String, Claims> cache;
+
+    private final Timer hitTimer;
+
+    private final Timer missTimer;
+
+    public VerifiedTokenCache(JwtCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hitTimer = verifyTimer(meterRegistry, "hit");
+        this.missTimer = verifyTimer(meterRegistry, "miss");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 校验Token并返回Claims（优先读缓存）
+     *
+     * @param token Access Token（已去除Bearer前缀）
+     * @return 验证通过的Claims；Token无效或过期时返回null
+     */
+    public Claims verify(String token) {
+        long start = System.nanoTime();
+        if (!properties.isEnabled()) {
+            Claims claims = parse(token);
+            missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+        String key = digest(token);
+        Claims cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Claims claims = parse(token);
+        // 没有exp的Token不缓存，避免条目永不过期
+        if (claims != null && claims.getExpiration() != null) {
+            cache.put(key, claims);
+        }
+        missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    /**
+     * 验签耗时（按是否命中缓存）
+     */
+    public Map<String, Timer> verifyTimers() {
+        return Map.of("hit", hitTimer, "miss", missTimer);
+    }
+
+    /**
+     * 密钥轮换后清空缓存，旧密钥签发的Token需重新验签
+     *
+     * @param event 环境变更事件
+     */
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (event.getKeys().contains("shopease.jwt.secret")) {
+            cache.invalidateAll();
+        }
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("gateway.jwt.verify")
+                .tag("cache", result)
+                .publishPercentiles(GatewayMetrics.PERCENTILES)
+                .register(meterRegistry);
+    }
+
+    private Claims parse(String token) {
+        try {
+            return JwtUtils.getClaims(token);
+        } catch (Exception e) {
+            // 签名错误、过期、格式错误等，统一视为无效
+            return null;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // JDK 必须提供 SHA-256，理论上不会发生
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 按Token自身的exp计算条目存活时间
+     */
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shopease.utils;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 等候室（先到先得，按固定速率放行）
+ * <p>
+ * 每个队列维护已发放的排队号和放行游标：游标按放行速率随时间前进（最多领先已发放排队号 burst 个），
+ * 排队号不大于游标即放行。同一身份在同一队列中只持有一个排队号，轮询时沿用原排队号，保证先到先得。
+ *
+ * @author hspcadmin
+ */
+public interface WaitingRoom {
+
+    /**
+     * 进入等候室
+     *
+     * @param room     队列Key（如 flash-sale:1001）
+     * @param identity 请求方身份（见 {@link RequestKeys#identity}）
+     * @param rate     每秒放行人数
+     * @param burst    允许的突发放行人数
+     * @return 排队结果
+     */
+    Mono<Admission> enter(String room, String identity, double rate, int burst);
+
+    /**
+     * 排队结果
+     *
+     * @param admitted 是否放行
+     * @param ticket   排队号
+     * @param ahead    前面还有多少人（放行时为0）
+     */
+    record Admission(boolean admitted, long ticket, long ahead) {
+
+        /**
+         * 等候室不可用时的放行结果
+         */
+        public static final Admission PASS = new Admission(true, 0, 0);
+    }
+}
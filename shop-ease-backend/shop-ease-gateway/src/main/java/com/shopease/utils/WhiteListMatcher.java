@@ -0,0 +1,153 @@
+package com.shopease.utils;
+
+import com.shopease.config.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 白名单路径匹配器（网关专用）
+ * <p>
+ * 白名单配置只在变更时编译一次：不含通配符/变量的路径放入哈希表，O(1) 精确匹配；
+ * 其余路径预编译为 {@link PathPattern} 并按字面量前缀建立索引，按段匹配，不会再误匹配包含白名单子串的路径。
+ * 配置中心刷新会重新绑定 {@link AuthProperties}（生成新的列表实例），匹配时发现列表变化即重新编译。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class WhiteListMatcher {
+
+    private final AuthProperties authProperties;
+
+    private volatile CompiledWhiteList compiled;
+
+    public WhiteListMatcher(AuthProperties authProperties) {
+        this.authProperties = authProperties;
+        this.compiled = CompiledWhiteList.compile(authProperties.getWhiteList());
+    }
+
+    /**
+     * 判断请求路径是否在白名单内
+     *
+     * @param path 请求路径（不含查询参数）
+     * @return true：免登录放行
+     */
+    public boolean matches(PathContainer path) {
+        return current().matches(path);
+    }
+
+    private CompiledWhiteList current() {
+        CompiledWhiteList current = compiled;
+        List<String> source = authProperties.getWhiteList();
+        if (current.source() != source) {
+            current = CompiledWhiteList.compile(source);
+            compiled = current;
+            log.info("网关白名单已重新加载，共{}条", source == null ? 0 : source.size());
+        }
+        return current;
+    }
+
+    /**
+     * 编译后的白名单（不可变）
+     * <p>
+     * 模式按开头的字面量路径段（如 /goods/** 的 /goods）建立索引，匹配时只按请求路径的前几段查表，
+     * 仅校验前缀相同的模式，白名单条目增多时未命中请求的开销基本不变；首段即为通配/变量的模式逐一校验。
+     */
+    private record CompiledWhiteList(List<String> source, Set<String> exactPaths,
+                                     Map<String, PathPattern[]> patternsByPrefix, int maxPrefixDepth,
+                                     PathPattern[] unprefixedPatterns) {
+
+        static CompiledWhiteList compile(List<String> source) {
+            Set<String> exactPaths = new HashSet<>();
+            Map<String, List<PathPattern>> patternsByPrefix = new HashMap<>();
+            List<PathPattern> unprefixedPatterns = new ArrayList<>();
+            int maxPrefixDepth = 0;
+            if (source != null) {
+                PathPatternParser parser = PathPatternParser.defaultInstance;
+                for (String raw : source) {
+                    if (raw == null || raw.isBlank()) {
+                        continue;
+                    }
+                    String pattern = raw.trim();
+                    if (isLiteral(pattern)) {
+                        exactPaths.add(pattern);
+                        continue;
+                    }
+                    PathPattern compiled = parser.parse(pattern);
+                    StringBuilder prefix = new StringBuilder();
+                    int depth = 0;
+                    if (pattern.startsWith("/")) {
+                        String[] segments = pattern.split("/");
+                        // segments[0] 为开头"/"之前的空串；遇到空段（//）或通配/变量段即停止，最后一段不计入
+                        for (int i = 1; i < segments.length - 1; i++) {
+                            if (segments[i].isEmpty() || !isLiteral(segments[i])) {
+                                break;
+                            }
+                            prefix.append('/').append(segments[i]);
+                            depth++;
+                        }
+                    }
+                    if (depth == 0) {
+                        unprefixedPatterns.add(compiled);
+                    } else {
+                        patternsByPrefix.computeIfAbsent(prefix.toString(), k -> new ArrayList<>()).add(compiled);
+                        maxPrefixDepth = Math.max(maxPrefixDepth, depth);
+                    }
+                }
+            }
+            Map<String, PathPattern[]> index = new HashMap<>();
+            patternsByPrefix.forEach((prefix, patterns) -> index.put(prefix, patterns.toArray(new PathPattern[0])));
+            return new CompiledWhiteList(source, Set.copyOf(exactPaths), Map.copyOf(index), maxPrefixDepth,
+                    unprefixedPatterns.toArray(new PathPattern[0]));
+        }
+
+        boolean matches(PathContainer path) {
+            if (exactPaths.contains(path.value())) {
+                return true;
+            }
+            for (PathPattern pattern : unprefixedPatterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            if (maxPrefixDepth == 0) {
+                return false;
+            }
+            // 逐段拼接请求路径前缀（使用解码后的段值，与 PathPattern 的字面量比较方式一致）
+            StringBuilder prefix = new StringBuilder();
+            int depth = 0;
+            for (PathContainer.Element element : path.elements()) {
+                if (!(element instanceof PathContainer.PathSegment segment)) {
+                    continue;
+                }
+                prefix.append('/').append(segment.valueToMatch());
+                PathPattern[] candidates = patternsByPrefix.get(prefix.toString());
+                if (candidates != null) {
+                    for (PathPattern pattern : candidates) {
+                        if (pattern.matches(path)) {
+                            return true;
+                        }
+                    }
+                }
+                if (++depth >= maxPrefixDepth) {
+                    break;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isLiteral(String pattern) {
+            return pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0 && pattern.indexOf('{') < 0;
+        }
+    }
+}
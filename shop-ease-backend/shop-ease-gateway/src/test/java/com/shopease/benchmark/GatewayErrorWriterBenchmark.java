@@ -0,0 +1,119 @@
+package com.shopease.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopease.result.Result;
+import com.shopease.utils.GatewayErrorWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 401 响应输出基准测试（吞吐量 + 每次响应的内存分配）
+ * <p>
+ * preEncoded：{@link GatewayErrorWriter#write(ServerWebExchange, HttpStatus, String)} 输出预先序列化的响应体；
+ * jacksonPerCall：优化前的实现，每次封装 Result、Jackson 序列化为字符串再转字节数组，作为对照组。
+ * 两者每次都写入新的模拟响应（含创建模拟响应本身的开销），差值即响应体序列化的开销；
+ * 使用 GC 分析器（-prof gc）输出每次调用的分配字节数 gc.alloc.rate.norm。
+ * <p>
+ * 运行方式（在 shop-ease-gateway 目录下，需先 install shop-ease-common 与 shopease-redis）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.GatewayErrorWriterBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GatewayErrorWriterBenchmark {
+
+    private final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/goods/1"));
+
+    private ObjectMapper objectMapper;
+
+    private GatewayErrorWriter errorWriter;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        errorWriter = new GatewayErrorWriter(objectMapper);
+    }
+
+    @Benchmark
+    public Mono<Void> preEncoded() {
+        Mono<Void> written = errorWriter.write(newResponse(), HttpStatus.UNAUTHORIZED, GatewayErrorWriter.TOKEN_EXPIRED);
+        written.block();
+        return written;
+    }
+
+    @Benchmark
+    public Mono<Void> jacksonPerCall() {
+        Mono<Void> written = legacyWrite(newResponse(), HttpStatus.UNAUTHORIZED, GatewayErrorWriter.TOKEN_EXPIRED);
+        written.block();
+        return written;
+    }
+
+    /**
+     * 每次调用使用新的响应对象；复用同一个模拟请求，避免模拟请求的创建开销（会话、属性等）掩盖响应体的差异
+     */
+    private ServerWebExchange newResponse() {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        return new ServerWebExchangeDecorator(exchange) {
+            @Override
+            public ServerHttpResponse getResponse() {
+                return response;
+            }
+        };
+    }
+
+    /**
+     * 优化前的错误响应输出
+     */
+    private Mono<Void> legacyWrite(ServerWebExchange exchange, HttpStatus status, String msg) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        try {
+            byte[] bytes = objectMapper.writeValueAsString(Result.error(msg)).getBytes(StandardCharsets.UTF_8);
+            DataBuffer buffer = response.bufferFactory().wrap(bytes);
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GatewayErrorWriterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
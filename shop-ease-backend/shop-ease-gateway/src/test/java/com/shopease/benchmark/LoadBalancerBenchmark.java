@@ -0,0 +1,112 @@
+package com.shopease.benchmark;
+
+import com.shopease.config.LoadBalancerProperties;
+import com.shopease.loadbalancer.InstanceLoadStats;
+import com.shopease.loadbalancer.PeakEwmaLoadBalancer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 负载均衡尾延迟基准测试（P2C + 峰值EWMA 与轮询对比，报告 p50/p90/p99）
+ * <p>
+ * 桩实例：4个实例中3个耗时5ms，1个耗时100ms（模拟GC停顿或变慢的实例）。桩实例以休眠模拟耗时，
+ * 不占用CPU，结果不受压测客户端、网关与桩服务争抢CPU的影响；
+ * 每次调用与网关一致：负载均衡选实例 → 记录开始 → 等待桩实例耗时 → 记录耗时（见 InstanceLoadStatsFilter）。
+ * 8个线程闭环并发，SampleTime 模式直接给出单次请求耗时的分位数。
+ * <p>
+ * 运行方式（在 shop-ease-gateway 目录下，需先 install shop-ease-common 与 shopease-redis）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.LoadBalancerBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(8)
+public class LoadBalancerBenchmark {
+
+    private static final String SERVICE_ID = "shop-ease-good-service";
+
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Param({"P2C", "ROUND_ROBIN"})
+    private LoadBalancerProperties.Strategy strategy;
+
+    private ReactorServiceInstanceLoadBalancer loadBalancer;
+
+    private InstanceLoadStats stats;
+
+    private final Request<?> request = new DefaultRequest<>();
+
+    /**
+     * 桩实例耗时（按端口）
+     */
+    private final Map<Integer, Long> latencyByPort = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        ServiceInstance[] instances = new ServiceInstance[4];
+        for (int i = 0; i < instances.length; i++) {
+            int port = 19001 + i;
+            instances[i] = new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID, "127.0.0.1", port, false);
+            latencyByPort.put(port, i == instances.length - 1 ? SLOW_NANOS : FAST_NANOS);
+        }
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider =
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances);
+        stats = new InstanceLoadStats(new LoadBalancerProperties());
+        loadBalancer = strategy == LoadBalancerProperties.Strategy.ROUND_ROBIN
+                ? new RoundRobinLoadBalancer(supplierProvider, SERVICE_ID)
+                : new PeakEwmaLoadBalancer(supplierProvider, SERVICE_ID, stats);
+    }
+
+    @Benchmark
+    public ServiceInstance request() {
+        ServiceInstance instance = loadBalancer.choose(request).block().getServer();
+        long start = System.nanoTime();
+        stats.start(instance);
+        LockSupport.parkNanos(latencyByPort.get(instance.getPort()));
+        stats.complete(instance, System.nanoTime() - start, false);
+        return instance;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoadBalancerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,159 @@
+package com.shopease.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopease.result.Result;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关响应压缩基准测试（商品列表JSON：压缩耗时、压缩后字节数与链路传输节省）
+ * <p>
+ * 与网关 server.compression 相同，使用 Reactor Netty 的 {@link HttpContentCompressor}（默认压缩级别）
+ * 按 Accept-Encoding 压缩一页20条商品的响应；每次调用测量单个响应的压缩耗时，
+ * 结束时打印原始/压缩后字节数，以及按不同带宽计算的传输耗时节省，与压缩耗时对比即为净收益。
+ * <p>
+ * 运行方式（在 shop-ease-gateway 目录下，需先 install shop-ease-common 与 shopease-redis）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.ResponseCompressionBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * 链路带宽（Mbit/s）：移动网络弱信号、普通4G、宽带
+     */
+    private static final int[] BANDWIDTHS_MBIT = {1, 10, 100};
+
+    @Param({"gzip", "deflate"})
+    private String acceptEncoding;
+
+    private byte[] payload;
+
+    private int compressedBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = new ObjectMapper().writeValueAsBytes(goodsPage());
+        compressedBytes = compress();
+    }
+
+    @Benchmark
+    public int compress() {
+        EmbeddedChannel channel = new EmbeddedChannel(new HttpContentCompressor());
+        DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/goods/page");
+        request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding);
+        channel.writeInbound(request);
+        ReferenceCountUtil.release(channel.readInbound());
+
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+                Unpooled.wrappedBuffer(payload));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, payload.length);
+        channel.writeOutbound(response);
+
+        int bytes = 0;
+        Object message;
+        while ((message = channel.readOutbound()) != null) {
+            if (message instanceof ByteBufHolder holder) {
+                ByteBuf content = holder.content();
+                bytes += content.readableBytes();
+            }
+            ReferenceCountUtil.release(message);
+        }
+        channel.finishAndReleaseAll();
+        return bytes;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n[%s] 原始 %d 字节 -> 压缩后 %d 字节（减少 %.1f%%）%n", acceptEncoding,
+                payload.length, compressedBytes, 100.0 * (payload.length - compressedBytes) / payload.length);
+        for (int mbit : BANDWIDTHS_MBIT) {
+            double savedMillis = (payload.length - compressedBytes) * 8.0 / (mbit * 1000.0);
+            System.out.printf("[%s] %d Mbit/s 链路单次响应传输节省 %.2f ms%n", acceptEncoding, mbit, savedMillis);
+        }
+    }
+
+    /**
+     * 一页商品列表响应（字段与 Goods 实体、Result 包装一致）
+     */
+    private static Result<Map<String, Object>> goodsPage() {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Map<String, Object> goods = new LinkedHashMap<>();
+            goods.put("id", 1_000_000L + i * 37L);
+            goods.put("categoryId", 10L + i % 6);
+            goods.put("name", "新疆阿克苏冰糖心苹果 " + (3 + i % 3) + "斤装 单果" + (70 + i * 5) + "-" + (80 + i * 5) + "mm");
+            goods.put("subTitle", "产地直发 脆甜多汁 坏果包赔 第" + (i + 1) + "批次现摘现发，顺丰冷链次日达");
+            goods.put("price", new BigDecimal("39.90").add(BigDecimal.valueOf(i)));
+            goods.put("stock", 500 - i * 13);
+            goods.put("image", "https://cdn.shopease.com/upload/goods/2025/11/" + (20 + i % 10) + "/"
+                    + Long.toHexString(0x5f3a9c0d1e2bL * (i + 1)) + ".jpg");
+            goods.put("description", "精选海拔1500米以上果园，昼夜温差大，糖分积累充足。果面可能有少量自然斑点，不影响食用。"
+                    + "收到后请及时开箱检查，如有破损请在48小时内联系客服。编号" + i);
+            goods.put("status", 1);
+            goods.put("sort", i);
+            goods.put("createTime", "2025-11-" + (10 + i % 18) + "T10:" + (10 + i) + ":00");
+            goods.put("updateTime", "2025-11-30T08:" + (10 + i) + ":00");
+            records.add(goods);
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("records", records);
+        page.put("total", 326);
+        page.put("size", PAGE_SIZE);
+        page.put("current", 1);
+        page.put("pages", 17);
+        return Result.success(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseCompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.shopease.benchmark;
+
+import com.shopease.config.AuthProperties;
+import com.shopease.utils.WhiteListMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 白名单匹配耗时基准测试（300条白名单，单次请求匹配耗时）
+ * <p>
+ * 白名单由100条精确路径、100条 /** 前缀通配与100条含路径变量的模式组成；
+ * matcher*：{@link WhiteListMatcher#matches}（哈希精确匹配 + 按字面量前缀索引的预编译 PathPattern）；
+ * legacy*：优化前的 {@code whiteList.stream().anyMatch(path::contains)}，作为对照组。
+ * <p>
+ * 运行方式（在 shop-ease-gateway 目录下，需先 install shop-ease-common 与 shopease-redis）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.WhiteListMatcherBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhiteListMatcherBenchmark {
+
+    private static final int GROUP_SIZE = 100;
+
+    private WhiteListMatcher matcher;
+
+    private List<String> whiteList;
+
+    /**
+     * 命中精确路径
+     */
+    private String exactHit;
+
+    /**
+     * 命中最后一条路径变量模式（逐一遍历时需校验全部模式）
+     */
+    private String patternHit;
+
+    /**
+     * 未命中（普通业务请求的常见情况）
+     */
+    private String miss;
+
+    private PathContainer exactHitPath;
+
+    private PathContainer patternHitPath;
+
+    private PathContainer missPath;
+
+    @Setup
+    public void setUp() {
+        whiteList = new ArrayList<>();
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            whiteList.add("/open/service" + i + "/ping");
+        }
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            whiteList.add("/public/module" + i + "/**");
+        }
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            whiteList.add("/goods/category" + i + "/{id}/detail");
+        }
+        AuthProperties properties = new AuthProperties();
+        properties.setWhiteList(whiteList);
+        matcher = new WhiteListMatcher(properties);
+
+        exactHit = "/open/service50/ping";
+        patternHit = "/goods/category" + (GROUP_SIZE - 1) + "/123/detail";
+        miss = "/goods/list/page/3";
+        exactHitPath = PathContainer.parsePath(exactHit);
+        patternHitPath = PathContainer.parsePath(patternHit);
+        missPath = PathContainer.parsePath(miss);
+    }
+
+    @Benchmark
+    public boolean matcherExactHit() {
+        return matcher.matches(exactHitPath);
+    }
+
+    @Benchmark
+    public boolean matcherPatternHit() {
+        return matcher.matches(patternHitPath);
+    }
+
+    @Benchmark
+    public boolean matcherMiss() {
+        return matcher.matches(missPath);
+    }
+
+    /**
+     * 网关过滤器中的实际调用包含路径解析，单独计入一次
+     */
+    @Benchmark
+    public boolean matcherMissWithParse() {
+        return matcher.matches(PathContainer.parsePath(miss));
+    }
+
+    @Benchmark
+    public boolean legacyExactHit() {
+        return whiteList.stream().anyMatch(exactHit::contains);
+    }
+
+    @Benchmark
+    public boolean legacyMiss() {
+        return whiteList.stream().anyMatch(miss::contains);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WhiteListMatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,6 +1,10 @@
 package com.shopease.service;
 
 import com.shopease.dto.AiGoodsDTO;
+import com.shopease.exception.BusinessException;
+import com.shopease.exception.DeadlineExceededException;
+import com.shopease.utils.Deadline;
+import jakarta.annotation.PreDestroy;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,12 +12,27 @@ import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Service
 public class AiGoodsService {
 
+    private static final String BUSY_MESSAGE = "AI服务繁忙，请稍后再试";
+
     private final ChatClient chatClient;
 
+    // AI调用线程池：请求带截止时间时在此执行，超时后中断调用线程并释放请求线程；队列有界，满时直接拒绝
+    private final ThreadPoolExecutor aiExecutor;
+
     @Value("${shopease.ai.goods.desc-template:请为【{categoryName}】类商品《{goodsName}》生成电商详情描述，卖点：{sellingPoint}。要求：200-300字，生动突出卖点。}")
     private String descTemplate;
 
@@ -21,8 +40,12 @@ public class AiGoodsService {
     private String titleTemplate;
 
     // 构造器注入ChatClient.Builder并构建ChatClient
-    public AiGoodsService(ChatClient.Builder chatClientBuilder) {
+    public AiGoodsService(ChatClient.Builder chatClientBuilder,
+                          @Value("${shopease.ai.goods.threads:16}") int threads,
+                          @Value("${shopease.ai.goods.queue-capacity:32}") int queueCapacity) {
         this.chatClient = chatClientBuilder.build();
+        this.aiExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new AiThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
@@ -41,11 +64,11 @@ public class AiGoodsService {
         String promptText = promptTemplate.render();
 
         // 核心修复：用user()替代text()，这是Spring AI 2.x的标准方法
-        return chatClient
+        return callWithinDeadline(() -> chatClient
                 .prompt() // 开始构建提示
                 .user(promptText) // 设置用户的提示词（标准方法）
                 .call() // 执行调用
-                .content(); // 获取返回的内容字符串
+                .content()); // 获取返回的内容字符串
     }
 
     /**
@@ -64,10 +87,60 @@ public class AiGoodsService {
         String promptText = promptTemplate.render();
 
         // 核心修复：用user()替代text()
-        return chatClient
+        return callWithinDeadline(() -> chatClient
                 .prompt()
                 .user(promptText)
                 .call()
-                .content();
+                .content());
+    }
+
+    /**
+     * 在请求截止时间内执行AI调用
+     * 截止时间已过则不再调用；调用中途超时则中断调用线程并返回超时（客户端已放弃，结果不再需要）；
+     * 线程池与队列均已满时直接提示繁忙，不在请求线程上无限排队
+     */
+    private String callWithinDeadline(Supplier<String> call) {
+        if (!Deadline.isSet()) {
+            return call.get();
+        }
+        Deadline.check();
+        Future<String> future;
+        try {
+            future = aiExecutor.submit(call::get);
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException(BUSY_MESSAGE);
+        }
+        try {
+            return future.get(Deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new DeadlineExceededException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException("AI调用被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException("AI调用失败", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        aiExecutor.shutdownNow();
+    }
+
+    private static class AiThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ai-call-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录失败限制配置类（绑定 application.yml 中的 shopease.login-throttle 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.login-throttle")
+public class LoginThrottleConfig {
+
+    // 是否启用登录失败限制
+    private boolean enabled = true;
+
+    // LOCAL：单机内存；REDIS：多实例共享（Lua脚本）
+    private Mode mode = Mode.LOCAL;
+
+    // 失败次数统计窗口（滑动窗口，窗口内无失败后计数清零）
+    private Duration window = Duration.ofMinutes(15);
+
+    // 同一用户名允许的连续失败次数（超出后按指数退避锁定）
+    private int usernameMaxFailures = 5;
+
+    // 同一IP允许的失败次数（撞库时一个IP尝试大量用户名）
+    private int ipMaxFailures = 20;
+
+    // 首次锁定时长（之后每多失败一次翻倍）
+    private Duration baseDelay = Duration.ofSeconds(1);
+
+    // 最长锁定时长
+    private Duration maxDelay = Duration.ofMinutes(15);
+
+    // 单机模式最多记录的用户名、IP数（超出后淘汰最久未失败的）
+    private long maxKeys = 100000;
+
+    public enum Mode {
+        LOCAL, REDIS
+    }
+}
@@ -0,0 +1,24 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希配置类（绑定 application.yml 中的 shopease.password-hash 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.password-hash")
+public class PasswordHashConfig {
+
+    // bcrypt 强度（4~31，每加1耗时翻倍；调高后旧密码在用户下次登录成功时自动升级）
+    private int strength = 10;
+
+    // 哈希线程数（小于等于0时取CPU核数）
+    private int threads = 0;
+
+    // 等待队列长度（队列已满时直接拒绝，不再占用请求线程排队）
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,29 @@
+package com.shopease.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Refresh Token 会话配置类（绑定 application.yml 中的 shopease.refresh-token 配置）
+ * @author hspcadmin
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "shopease.refresh-token")
+public class RefreshTokenConfig {
+
+    // 每个用户的会话数上限（小于等于0不限制），超出时最早过期的会话失效
+    private int maxSessions = 0;
+
+    // 是否定期清理会话索引中已过期的会话
+    private boolean sweepEnabled = true;
+
+    // 定期清理间隔（由 RefreshTokenSweepTask 的 @Scheduled 读取）
+    private Duration sweepInterval = Duration.ofHours(1);
+
+    // 定期清理时每批处理的用户数
+    private int sweepBatchSize = 500;
+}
@@ -1,14 +1,17 @@
 package com.shopease.config;
 
+import com.shopease.resolver.CurrentUserArgumentResolver;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import jakarta.annotation.Resource;
 import java.io.File;
+import java.util.List;
 
 /**
- * Web配置（静态资源映射、跨域等）
+ * Web配置（静态资源映射、跨域、参数解析器等）
  * @author 17813
  */
 @Configuration
@@ -39,4 +42,12 @@ public class WebMvcConfig implements WebMvcConfigurer {
         // 其他静态资源映射（如默认的 classpath:/static/）
         WebMvcConfigurer.super.addResourceHandlers(registry);
     }
+
+    /**
+     * 注册 @CurrentUser 参数解析器（当前登录用户每个请求只解析一次）
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
 }
@@ -1,17 +1,22 @@
 package com.shopease.controller;
 
+import com.shopease.annotation.CurrentUser;
 import com.shopease.dto.ChangePasswordDTO;
 import com.shopease.dto.LoginDTO;
 import com.shopease.dto.RegisterDTO;
 import com.shopease.dto.UpdateUserDTO;
 import com.shopease.result.Result;
 import com.shopease.service.SysUserService;
+import com.shopease.utils.ClientIpUtils;
 import com.shopease.vo.LoginVO;
 import com.shopease.vo.UserInfoVO;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.constraints.NotBlank;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 系统用户控制器
  * 负责用户登录、注册、个人信息管理等接口
@@ -38,12 +43,13 @@ public class SysUserController {
      * 用户登录接口
      *
      * @param loginDTO 登录入参（用户名+密码）
-     * @return 登录结果（JWT令牌+用户基本信息+刷新令牌）
+     * @param request  当前请求（获取客户端IP，用于登录失败限制）
+     * @return 登录结果（JWT令牌+用户基本信息+刷新令牌；异步返回，密码校验期间不占用请求线程）
      */
     @PostMapping("/login")
-    public Result<LoginVO> login(@Valid @RequestBody LoginDTO loginDTO) {
-        LoginVO loginVO = sysUserService.login(loginDTO);
-        return Result.success(loginVO);
+    public CompletableFuture<Result<LoginVO>> login(@Valid @RequestBody LoginDTO loginDTO, HttpServletRequest request) {
+        return sysUserService.login(loginDTO, ClientIpUtils.clientIp(request))
+                .thenApply(loginVO -> Result.success(loginVO));
     }
 
     /**
@@ -60,37 +66,40 @@ public class SysUserController {
 
     /**
      * 查询当前登录用户信息
-     * 无需传入用户ID，从JWT Token中解析
+     * 无需传入用户ID，由 @CurrentUser 从网关身份请求头或JWT Token中解析
      *
+     * @param userId 当前登录用户ID
      * @return 当前用户信息（隐藏密码）
      */
     @GetMapping("/current")
-    public Result<UserInfoVO> getCurrentUser() {
-        UserInfoVO userInfoVO = sysUserService.getCurrentUser();
+    public Result<UserInfoVO> getCurrentUser(@CurrentUser Long userId) {
+        UserInfoVO userInfoVO = sysUserService.getCurrentUser(userId);
         return Result.success(userInfoVO);
     }
 
     /**
      * 修改当前登录用户信息
      *
+     * @param userId        当前登录用户ID
      * @param updateUserDTO 修改入参（昵称、手机号，可选）
      * @return 修改结果（成功提示）
      */
     @PutMapping("/current")
-    public Result<?> updateCurrentUser(@Valid @RequestBody UpdateUserDTO updateUserDTO) {
-        sysUserService.updateCurrentUser(updateUserDTO);
+    public Result<?> updateCurrentUser(@CurrentUser Long userId, @Valid @RequestBody UpdateUserDTO updateUserDTO) {
+        sysUserService.updateCurrentUser(userId, updateUserDTO);
         return Result.success("修改成功");
     }
 
     /**
      * 修改登录密码
      *
+     * @param userId            当前登录用户ID
      * @param changePasswordDTO 修改密码入参（原密码、新密码、确认新密码）
      * @return 修改结果（成功提示）
      */
     @PutMapping("/password")
-    public Result<?> changePassword(@Valid @RequestBody ChangePasswordDTO changePasswordDTO) {
-        sysUserService.changePassword(changePasswordDTO);
+    public Result<?> changePassword(@CurrentUser Long userId, @Valid @RequestBody ChangePasswordDTO changePasswordDTO) {
+        sysUserService.changePassword(userId, changePasswordDTO);
         return Result.success("密码修改成功，请重新登录");
     }
 
@@ -109,14 +118,15 @@ public class SysUserController {
 
     /**
      * 用户退出登录接口
-     * 清理Redis中的refreshToken，使其无法再刷新accessToken
+     * 清理Redis中的refreshToken，使其无法再刷新accessToken；携带Authorization时同时吊销当前accessToken
      * 刷新令牌（从请求体传入）
      *
      * @return 退出结果（成功提示）
      */
     @PostMapping("/logout")
-    public Result<?> logout(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
-        sysUserService.logout(refreshTokenDTO.getRefreshToken());
+    public Result<?> logout(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO,
+                            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        sysUserService.logout(refreshTokenDTO.getRefreshToken(), authorization);
         return Result.success("退出登录成功");
     }
 
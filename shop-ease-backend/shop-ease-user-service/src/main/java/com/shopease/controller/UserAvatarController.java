@@ -1,8 +1,8 @@
 package com.shopease.controller;
 
+import com.shopease.annotation.CurrentUser;
 import com.shopease.result.Result;
 import com.shopease.service.SysUserService;
-import com.shopease.utils.JwtUtils;
 import com.shopease.utils.LocalStorageUtil;
 import jakarta.annotation.Resource;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,12 +27,11 @@ public class UserAvatarController {
     private SysUserService sysUserService;
 
     @PostMapping("/uploadAvatar")
-    public Result<String> uploadAvatar(@RequestParam("avatar") MultipartFile file) {
-        // 1. 上传文件到本地（模块名设为 "avatar"，区分其他文件）
+    public Result<String> uploadAvatar(@CurrentUser Long userId, @RequestParam("avatar") MultipartFile file) {
+        // 1. 上传文件到本地（模块名设为 "avatar"，区分其他文件；未登录时 @CurrentUser 解析失败，不会写入文件）
         String avatarUrl = localStorageUtil.upload(file, "avatar");
 
         // 2. 更新当前登录用户的 avatar 字段
-        Long userId = JwtUtils.getUserIdFromToken();
         sysUserService.updateAvatar(userId, avatarUrl);
 
         // 3. 返回前端可访问的 URL
@@ -9,6 +9,8 @@ import com.shopease.entity.SysUser;
 import com.shopease.vo.LoginVO;
 import com.shopease.vo.UserInfoVO;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 系统用户服务接口
  *
@@ -21,9 +23,10 @@ public interface SysUserService extends IService<SysUser> {
      * 用户登录
      *
      * @param loginDTO 登录入参
-     * @return 登录结果VO
+     * @param clientIp 客户端IP（登录失败限制按IP计数）
+     * @return 登录结果VO（密码校验在密码哈希线程池中完成后返回）
      */
-    LoginVO login(LoginDTO loginDTO);
+    CompletableFuture<LoginVO> login(LoginDTO loginDTO, String clientIp);
 
     /**
      * 用户注册
@@ -35,23 +38,26 @@ public interface SysUserService extends IService<SysUser> {
     /**
      * 查询当前登录用户信息
      *
+     * @param userId 当前登录用户ID
      * @return 用户信息VO
      */
-    UserInfoVO getCurrentUser();
+    UserInfoVO getCurrentUser(Long userId);
 
     /**
      * 修改当前登录用户信息
      *
+     * @param userId        当前登录用户ID
      * @param updateUserDTO 修改入参
      */
-    void updateCurrentUser(UpdateUserDTO updateUserDTO);
+    void updateCurrentUser(Long userId, UpdateUserDTO updateUserDTO);
 
     /**
      * 修改登录密码
      *
+     * @param userId            当前登录用户ID
      * @param changePasswordDTO 修改密码入参
      */
-    void changePassword(ChangePasswordDTO changePasswordDTO);
+    void changePassword(Long userId, ChangePasswordDTO changePasswordDTO);
 
     /**
      * 更新用户头像
@@ -64,8 +70,9 @@ public interface SysUserService extends IService<SysUser> {
     /**
      * 清空用户token信息
      * @param refreshToken 刷新token
+     * @param accessToken  当前Access Token（Authorization请求头，可为空；不为空时一并吊销）
      */
-    void logout(String refreshToken);
+    void logout(String refreshToken, String accessToken);
 
     /**
      * 刷新Access Token接口
@@ -2,6 +2,9 @@ package com.shopease.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.shopease.config.LoginThrottleConfig;
+import com.shopease.config.RefreshTokenConfig;
+import com.shopease.constans.Constant;
 import com.shopease.dto.ChangePasswordDTO;
 import com.shopease.dto.LoginDTO;
 import com.shopease.dto.RegisterDTO;
@@ -11,17 +14,25 @@ import com.shopease.exception.BusinessException;
 import com.shopease.mapper.SysUserMapper;
 import com.shopease.service.SysUserService;
 import com.shopease.utils.JwtUtils;
+import com.shopease.utils.LocalLoginThrottle;
+import com.shopease.utils.LoginThrottle;
+import com.shopease.utils.PasswordHasher;
 import com.shopease.utils.PasswordUtils;
+import com.shopease.utils.RedisLoginThrottle;
 import com.shopease.utils.RedisUtil;
+import com.shopease.utils.RefreshTokenStore;
 import com.shopease.vo.LoginVO;
 import com.shopease.vo.UserInfoVO;
+import io.jsonwebtoken.Claims;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,57 +48,124 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
     @Resource
     private RedisUtil redisUtil;
 
-    private static final String REFRESH_TOKEN_KEY_PREFIX = "shopease:refresh_token:";
+    @Resource
+    private RefreshTokenStore refreshTokenStore;
 
-    private static final String USER_REFRESH_TOKENS_KEY_PREFIX = "shopease:user:refresh_tokens:";
+    @Resource
+    private RefreshTokenConfig refreshTokenConfig;
+
+    @Resource
+    private PasswordHasher passwordHasher;
+
+    @Resource
+    private LoginThrottleConfig loginThrottleConfig;
+
+    @Resource
+    private LocalLoginThrottle localLoginThrottle;
+
+    @Resource
+    private RedisLoginThrottle redisLoginThrottle;
+
+    /**
+     * 密码校验后的数据库/Redis操作在 Spring Boot 默认任务线程池中执行，密码哈希线程池只做bcrypt计算
+     */
+    @Resource(name = "applicationTaskExecutor")
+    private Executor ioExecutor;
+
+    /**
+     * 吊销Access Token：写入快照ZSet（清理超过Access Token有效期的旧记录）并发布到网关，一次往返
+     * KEYS[1]: 快照Key；ARGV[1]: 吊销对象；ARGV[2]: 吊销时间（毫秒）；ARGV[3]: 保留下限（毫秒）；ARGV[4]: 快照过期时间（毫秒）；ARGV[5]: 发布频道
+     */
+    private static final RedisScript<Long> REVOKE_SCRIPT = RedisScript.of("""
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return redis.call('PUBLISH', ARGV[5], ARGV[1] .. ' ' .. ARGV[2])
+            """, Long.class);
 
     @Override
-    public LoginVO login(LoginDTO loginDTO) {
+    public CompletableFuture<LoginVO> login(LoginDTO loginDTO, String clientIp) {
+        // 0. 用户名或IP失败次数过多时直接拒绝（不查询数据库、不做bcrypt校验）
+        LoginThrottle loginThrottle = loginThrottle();
+        if (loginThrottle != null) {
+            long remainingMillis = loginThrottle.remainingLockMillis(loginDTO.getUsername(), clientIp);
+            if (remainingMillis > 0) {
+                log.warn("登录失败次数过多，已锁定，用户名：{}，IP：{}，剩余{}毫秒", loginDTO.getUsername(), clientIp, remainingMillis);
+                throw new BusinessException("登录失败次数过多，请" + (remainingMillis + 999) / 1000 + "秒后再试");
+            }
+        }
+
         // 1. 根据用户名查询用户
         SysUser user = baseMapper.selectByUsername(loginDTO.getUsername());
         if (user == null) {
             log.error("登录失败，用户名不存在：{}", loginDTO.getUsername());
+            recordLoginFailure(loginThrottle, loginDTO.getUsername(), clientIp);
             throw new BusinessException("用户名不存在");
         }
 
-        // 2. 校验密码
-        boolean passwordMatch = PasswordUtils.matches(loginDTO.getPassword(), user.getPassword());
-        if (!passwordMatch) {
-            log.error("登录失败，密码错误，用户名：{}", loginDTO.getUsername());
-            throw new BusinessException("密码错误");
+        // 2. 校验密码（bcrypt在密码哈希线程池中执行，不占用Tomcat线程；后续签发Token等I/O切回任务线程池）
+        return passwordHasher.matchesAsync(loginDTO.getPassword(), user.getPassword())
+                .thenApplyAsync(passwordMatch -> {
+                    if (!passwordMatch) {
+                        log.error("登录失败，密码错误，用户名：{}", loginDTO.getUsername());
+                        recordLoginFailure(loginThrottle, loginDTO.getUsername(), clientIp);
+                        throw new BusinessException("密码错误");
+                    }
+                    if (loginThrottle != null) {
+                        loginThrottle.recordSuccess(loginDTO.getUsername());
+                    }
+                    return completeLogin(user, loginDTO);
+                }, ioExecutor);
+    }
+
+    /**
+     * 当前模式的登录失败限制（未启用时为 null）
+     */
+    private LoginThrottle loginThrottle() {
+        if (!loginThrottleConfig.isEnabled()) {
+            return null;
         }
+        return loginThrottleConfig.getMode() == LoginThrottleConfig.Mode.REDIS ? redisLoginThrottle : localLoginThrottle;
+    }
 
+    private static void recordLoginFailure(LoginThrottle loginThrottle, String username, String clientIp) {
+        if (loginThrottle != null) {
+            loginThrottle.recordFailure(username, clientIp);
+        }
+    }
+
+    /**
+     * 密码校验通过后的登录流程：校验状态、升级密码哈希、签发双Token
+     */
+    private LoginVO completeLogin(SysUser user, LoginDTO loginDTO) {
         // 3. 校验用户状态
         if (user.getStatus() == 0) {
             log.error("登录失败，账号已被禁用，用户名：{}", loginDTO.getUsername());
             throw new BusinessException("账号已被禁用，请联系管理员");
         }
 
-        // 4. 生成双Token
+        // 4. 密码哈希强度低于当前配置时后台升级（不影响本次登录）
+        upgradePasswordIfNeeded(user, loginDTO.getPassword());
+
+        // 5. 生成双Token
         String accessToken = JwtUtils.generateAccessToken(user.getId(), user.getUsername());
         String refreshToken = JwtUtils.generateRefreshToken();
         Long userId = user.getId();
 
-        // 5. 将Refresh Token存入Redis（双Key结构，处理异常）
+        // 6. 将Refresh Token存入Redis（String：refreshToken -> userId；ZSet：userId -> refreshToken，按过期时间排序，用于批量删除；一次往返）
         try {
-            // 5.1 String类型：refreshToken -> userId（带过期时间）
-            String refreshTokenKey = REFRESH_TOKEN_KEY_PREFIX + refreshToken;
-            long expireSeconds = JwtUtils.getRefreshTokenExpiration() / 1000;
-            redisUtil.set(refreshTokenKey, userId.toString(), expireSeconds, TimeUnit.SECONDS);
-            log.debug("Refresh Token[String]存储成功，key：{}，过期时间：{}秒", refreshTokenKey, expireSeconds);
-
-            // 5.2 Hash类型：userId -> refreshToken（用于批量删除）
-            String userRefreshTokensKey = USER_REFRESH_TOKENS_KEY_PREFIX + userId;
-            redisUtil.hset(userRefreshTokensKey, refreshToken, true);
-            // 给Hash键也设置相同的过期时间（和String类型保持一致）
-            redisUtil.expire(userRefreshTokensKey, expireSeconds, TimeUnit.SECONDS);
-            log.debug("Refresh Token[Hash]存储成功，key：{}，refreshToken：{}", userRefreshTokensKey, refreshToken);
+            long evicted = refreshTokenStore.save(refreshToken, userId, JwtUtils.getRefreshTokenExpiration(),
+                    TimeUnit.MILLISECONDS, refreshTokenConfig.getMaxSessions());
+            if (evicted > 0) {
+                log.info("用户{}的会话数超出上限，最早的{}个会话已失效", user.getUsername(), evicted);
+            }
+            log.debug("Refresh Token存储成功，userId：{}", userId);
         } catch (Exception e) {
             log.error("用户{}登录时，Redis存储Refresh Token失败", loginDTO.getUsername(), e);
             throw new BusinessException("登录失败，请重试");
         }
 
-        // 6. 封装响应数据
+        // 7. 封装响应数据
         LoginVO loginVO = new LoginVO();
         loginVO.setUserId(userId);
         loginVO.setUsername(user.getUsername());
@@ -98,6 +176,31 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return loginVO;
     }
 
+    /**
+     * 按当前配置的bcrypt强度重新哈希密码（仅在数据库中的哈希未被修改时更新，避免覆盖并发的修改密码）
+     */
+    private void upgradePasswordIfNeeded(SysUser user, String rawPassword) {
+        String oldPassword = user.getPassword();
+        passwordHasher.upgradeIfNeeded(rawPassword, oldPassword)
+                .thenAcceptAsync(newPassword -> {
+                    if (newPassword == null) {
+                        return;
+                    }
+                    boolean updated = lambdaUpdate()
+                            .set(SysUser::getPassword, newPassword)
+                            .eq(SysUser::getId, user.getId())
+                            .eq(SysUser::getPassword, oldPassword)
+                            .update();
+                    if (updated) {
+                        log.info("用户{}的密码哈希已升级到当前强度", user.getUsername());
+                    }
+                }, ioExecutor)
+                .exceptionally(e -> {
+                    log.warn("用户{}的密码哈希升级失败，下次登录重试", user.getUsername(), e);
+                    return null;
+                });
+    }
+
     /**
      * 刷新Access Token接口
      */
@@ -110,22 +213,20 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         refreshToken = refreshToken.trim();
 
         // 2. 从Redis中查询refreshToken对应的用户ID（处理异常）
-        String refreshTokenKey = REFRESH_TOKEN_KEY_PREFIX + refreshToken;
-        String userIdStr;
+        Long userId;
         try {
-            userIdStr = redisUtil.get(refreshTokenKey);
+            userId = refreshTokenStore.getUserId(refreshToken);
         } catch (Exception e) {
             log.error("查询Refresh Token失败，refreshToken：{}", refreshToken, e);
             throw new BusinessException("刷新令牌验证失败，请重试");
         }
 
         // 3. 校验refreshToken是否有效
-        if (userIdStr == null) {
+        if (userId == null) {
             throw new BusinessException("刷新令牌已过期或无效，请重新登录");
         }
 
         // 4. 查询用户信息
-        Long userId = Long.parseLong(userIdStr);
         SysUser user = sysUserMapper.selectById(userId);
         if (user == null || user.getStatus() == 0) {
             // 清理无效的refreshToken（处理删除失败）
@@ -149,7 +250,7 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         if (existUser != null) {
             throw new BusinessException("用户名已存在");
         }
-        String encryptedPassword = PasswordUtils.encrypt(registerDTO.getPassword());
+        String encryptedPassword = passwordHasher.encode(registerDTO.getPassword());
         SysUser newUser = new SysUser();
         BeanUtils.copyProperties(registerDTO, newUser);
         newUser.setPassword(encryptedPassword);
@@ -161,9 +262,8 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
      * 查询当前登录用户信息（无修改）
      */
     @Override
-    public UserInfoVO getCurrentUser() {
-        Long currentUserId = JwtUtils.getUserIdFromToken();
-        SysUser user = sysUserMapper.selectById(currentUserId);
+    public UserInfoVO getCurrentUser(Long userId) {
+        SysUser user = sysUserMapper.selectById(userId);
         if (user == null) {
             throw new BusinessException("当前用户不存在");
         }
@@ -176,40 +276,39 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
      * 修改当前登录用户信息（无修改）
      */
     @Override
-    public void updateCurrentUser(UpdateUserDTO updateUserDTO) {
-        Long currentUserId = JwtUtils.getUserIdFromToken();
+    public void updateCurrentUser(Long userId, UpdateUserDTO updateUserDTO) {
         SysUser updateUser = new SysUser();
-        updateUser.setId(currentUserId);
+        updateUser.setId(userId);
         updateUser.setNickname(updateUserDTO.getNickname());
         updateUser.setPhone(updateUserDTO.getPhone());
         sysUserMapper.updateById(updateUser);
     }
 
     /**
-     * 修改密码逻辑（批量删除用户的所有Refresh Token）
+     * 修改密码逻辑（批量删除用户的所有Refresh Token，并吊销此前签发的所有Access Token）
      */
     @Override
-    public void changePassword(ChangePasswordDTO changePasswordDTO) {
-        // 1. 从JWT解析当前用户ID
-        Long currentUserId = JwtUtils.getUserIdFromToken();
-        // 2. 查询当前用户
+    public void changePassword(Long currentUserId, ChangePasswordDTO changePasswordDTO) {
+        // 1. 查询当前用户（用户ID由 Controller 的 @CurrentUser 参数解析）
         SysUser user = sysUserMapper.selectById(currentUserId);
         if (user == null) {
             throw new BusinessException("当前用户不存在");
         }
-        // 3. 验证原密码
-        boolean oldPasswordMatch = PasswordUtils.matches(changePasswordDTO.getOldPassword(), user.getPassword());
+        // 2. 验证原密码
+        boolean oldPasswordMatch = passwordHasher.matches(changePasswordDTO.getOldPassword(), user.getPassword());
         if (!oldPasswordMatch) {
             throw new BusinessException("原密码错误");
         }
-        // 4. 加密新密码并更新
-        String newEncryptedPassword = PasswordUtils.encrypt(changePasswordDTO.getNewPassword());
+        // 3. 加密新密码并更新
+        String newEncryptedPassword = passwordHasher.encode(changePasswordDTO.getNewPassword());
         user.setPassword(newEncryptedPassword);
         sysUserMapper.updateById(user);
 
-        // 5. 【关键】批量删除该用户的所有Refresh Token（处理删除失败）
+        // 4. 【关键】批量删除该用户的所有Refresh Token（处理删除失败）
         cleanAllRefreshTokens(currentUserId);
-        log.info("用户{}修改密码成功，已清理所有Refresh Token", user.getUsername());
+        // 5. 吊销该用户此前签发的所有Access Token（网关立即拒绝旧Token）
+        revokeAccessTokens("user:" + currentUserId);
+        log.info("用户{}修改密码成功，已清理所有Refresh Token并吊销Access Token", user.getUsername());
     }
 
     /**
@@ -224,23 +323,24 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
     }
 
     /**
-     * 退出登录接口（删除指定的Refresh Token）
+     * 退出登录接口（删除指定的Refresh Token，携带Access Token时一并吊销）
      */
     @Override
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, String accessToken) {
         if (refreshToken == null || refreshToken.trim().isEmpty()) {
             throw new BusinessException("刷新令牌不能为空");
         }
         refreshToken = refreshToken.trim();
 
+        // 0. 吊销当前Access Token（退出接口免登录，Token可能已过期，解析失败时忽略）
+        revokeAccessToken(accessToken);
+
         // 1. 获取refreshToken对应的用户ID
-        String refreshTokenKey = REFRESH_TOKEN_KEY_PREFIX + refreshToken;
-        String userIdStr = redisUtil.get(refreshTokenKey);
-        if (userIdStr == null) {
+        Long userId = refreshTokenStore.getUserId(refreshToken);
+        if (userId == null) {
             log.warn("退出登录时，Refresh Token已失效：{}", refreshToken);
             return;
         }
-        Long userId = Long.parseLong(userIdStr);
 
         // 2. 清理该refreshToken
         cleanRefreshToken(userId, refreshToken);
@@ -249,31 +349,59 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
 
     // ==================== 私有工具方法（处理Refresh Token的清理） ====================
 
+    /**
+     * 吊销单个Access Token（按Token ID）
+     * @param accessToken Authorization请求头（可带Bearer前缀）
+     */
+    private void revokeAccessToken(String accessToken) {
+        if (accessToken == null || accessToken.isBlank()) {
+            return;
+        }
+        String token = accessToken.trim();
+        if (token.toLowerCase().startsWith("bearer ")) {
+            token = token.substring(7).trim();
+        }
+        String tokenId;
+        try {
+            Claims claims = JwtUtils.getClaims(token);
+            tokenId = claims.getId();
+        } catch (Exception e) {
+            log.debug("退出登录时Access Token无效，无需吊销");
+            return;
+        }
+        if (tokenId != null) {
+            revokeAccessTokens("token:" + tokenId);
+        }
+    }
+
+    /**
+     * 吊销Access Token并通知所有网关（网关在内存中校验，不再逐请求查询Redis）
+     * @param subject 吊销对象：user:用户ID（此前签发的所有Token）或 token:Token ID
+     */
+    private void revokeAccessTokens(String subject) {
+        long now = System.currentTimeMillis();
+        long retention = JwtUtils.getAccessTokenExpiration();
+        try {
+            redisUtil.execute(REVOKE_SCRIPT, List.of(Constant.TOKEN_REVOCATION_KEY), subject, String.valueOf(now),
+                    String.valueOf(now - retention), String.valueOf(retention), Constant.TOKEN_REVOCATION_CHANNEL);
+            log.debug("Access Token已吊销：{}", subject);
+        } catch (Exception e) {
+            log.error("吊销Access Token失败：{}", subject, e);
+        }
+    }
+
     /**
      * 清理单个Refresh Token（处理删除失败的情况）
      * @param userId 用户ID
      * @param refreshToken 刷新令牌
      */
     private void cleanRefreshToken(Long userId, String refreshToken) {
-        // 定义要删除的Key
-        String refreshTokenKey = REFRESH_TOKEN_KEY_PREFIX + refreshToken;
-        String userRefreshTokensKey = USER_REFRESH_TOKENS_KEY_PREFIX + userId;
-
         try {
-            // 1. 删除String类型的refreshToken
-            Boolean isStringDeleted = redisUtil.delete(refreshTokenKey);
-            if (Boolean.TRUE.equals(isStringDeleted)) {
-                log.debug("删除Refresh Token[String]成功，key：{}", refreshTokenKey);
-            } else {
-                log.warn("删除Refresh Token[String]失败，key：{}（可能已过期）", refreshTokenKey);
-            }
-
-            // 2. 删除Hash类型中的refreshToken
-            Long hashDeleteCount = redisUtil.hdelete(userRefreshTokensKey, refreshToken);
-            if (hashDeleteCount > 0) {
-                log.debug("删除Refresh Token[Hash]成功，key：{}，refreshToken：{}", userRefreshTokensKey, refreshToken);
+            // 删除String类型的refreshToken及会话索引中的记录（一次往返）
+            if (refreshTokenStore.remove(refreshToken, userId)) {
+                log.debug("删除Refresh Token成功，userId：{}", userId);
             } else {
-                log.warn("删除Refresh Token[Hash]失败，key：{}，refreshToken：{}（可能已不存在）", userRefreshTokensKey, refreshToken);
+                log.warn("删除Refresh Token失败，userId：{}，refreshToken：{}（可能已过期）", userId, refreshToken);
             }
         } catch (Exception e) {
             log.error("清理Refresh Token失败，userId：{}，refreshToken：{}", userId, refreshToken, e);
@@ -287,34 +415,10 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
      * @param userId 用户ID
      */
     private void cleanAllRefreshTokens(Long userId) {
-        String userRefreshTokensKey = USER_REFRESH_TOKENS_KEY_PREFIX + userId;
-
         try {
-            // 1. 获取该用户的所有Refresh Token
-            Map<Object, Object> refreshTokenMap = redisUtil.hgetAll(userRefreshTokensKey);
-            if (refreshTokenMap.isEmpty()) {
-                log.debug("用户{}无Refresh Token需要清理", userId);
-                return;
-            }
-            Set<Object> refreshTokens = refreshTokenMap.keySet();
-
-            // 2. 遍历删除每个String类型的refreshToken
-            for (Object tokenObj : refreshTokens) {
-                String refreshToken = tokenObj.toString();
-                String refreshTokenKey = REFRESH_TOKEN_KEY_PREFIX + refreshToken;
-                Boolean isDeleted = redisUtil.delete(refreshTokenKey);
-                if (Boolean.FALSE.equals(isDeleted)) {
-                    log.warn("删除用户{}的Refresh Token[String]失败，key：{}", userId, refreshTokenKey);
-                }
-            }
-
-            // 3. 删除整个Hash键（批量删除用户的所有refreshToken）
-            Boolean isHashDeleted = redisUtil.delete(userRefreshTokensKey);
-            if (Boolean.TRUE.equals(isHashDeleted)) {
-                log.debug("删除用户{}的Refresh Token[Hash]键成功，key：{}", userId, userRefreshTokensKey);
-            } else {
-                log.warn("删除用户{}的Refresh Token[Hash]键失败，key：{}", userId, userRefreshTokensKey);
-            }
+            // 按会话索引批量UNLINK所有refreshToken及索引本身（一次往返，与会话数无关）
+            long removed = refreshTokenStore.removeAll(userId);
+            log.debug("用户{}的Refresh Token已清理，共{}个", userId, removed);
         } catch (Exception e) {
             log.error("清理用户{}的所有Refresh Token失败", userId, e);
             // 可选：抛出异常，阻止密码修改（保证安全）
@@ -0,0 +1,44 @@
+package com.shopease.task;
+
+import com.shopease.config.RefreshTokenConfig;
+import com.shopease.utils.RefreshTokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定期清理 Refresh Token 会话索引中已过期的会话
+ * <p>
+ * 登录、退出时已顺带清理当前用户的过期会话，这里补充清理长期未登录但索引仍未过期的用户。
+ * 多个实例同时执行互不影响（清理操作幂等）。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class RefreshTokenSweepTask {
+
+    private final RefreshTokenConfig refreshTokenConfig;
+
+    private final RefreshTokenStore refreshTokenStore;
+
+    public RefreshTokenSweepTask(RefreshTokenConfig refreshTokenConfig, RefreshTokenStore refreshTokenStore) {
+        this.refreshTokenConfig = refreshTokenConfig;
+        this.refreshTokenStore = refreshTokenStore;
+    }
+
+    @Scheduled(initialDelayString = "#{@refreshTokenConfig.sweepInterval.toMillis()}",
+            fixedDelayString = "#{@refreshTokenConfig.sweepInterval.toMillis()}")
+    public void sweep() {
+        if (!refreshTokenConfig.isSweepEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            long pruned = refreshTokenStore.sweep(refreshTokenConfig.getSweepBatchSize());
+            log.info("Refresh Token会话索引清理完成，清理过期会话{}个，耗时{}毫秒", pruned, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Refresh Token会话索引清理失败：{}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.shopease.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 客户端IP工具类
+ * @author hspcadmin
+ */
+public final class ClientIpUtils {
+
+    private ClientIpUtils() {
+    }
+
+    /**
+     * 获取客户端IP：经网关转发时取 X-Forwarded-For 的最后一项（网关追加的对端地址，客户端伪造的值只会出现在前面），
+     * 直接访问时取连接地址
+     *
+     * @param request 当前请求
+     * @return 客户端IP
+     */
+    public static String clientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String last = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            if (!last.isEmpty()) {
+                return last;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,114 @@
+package com.shopease.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopease.config.LoginThrottleConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 单机登录失败限制（滑动窗口保存在内存中）
+ * <p>
+ * 每个用户名、IP保存窗口内的失败时间（最多 {@link #MAX_RECORDS} 条，退避早已达到上限，更早的记录无需保留），
+ * 窗口内无新的失败后整条记录过期；记录数超过 maxKeys 时淘汰最久未失败的。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class LocalLoginThrottle implements LoginThrottle {
+
+    private static final int MAX_RECORDS = 64;
+
+    private final LoginThrottleConfig config;
+
+    private final Cache<String, Failures> failures;
+
+    public LocalLoginThrottle(LoginThrottleConfig config) {
+        this.config = config;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterWrite(config.getWindow())
+                .build();
+    }
+
+    @Override
+    public long remainingLockMillis(String username, String ip) {
+        long now = System.currentTimeMillis();
+        return Math.max(remaining("user:" + username, config.getUsernameMaxFailures(), now),
+                remaining("ip:" + ip, config.getIpMaxFailures(), now));
+    }
+
+    @Override
+    public void recordFailure(String username, String ip) {
+        long now = System.currentTimeMillis();
+        record("user:" + username, now);
+        record("ip:" + ip, now);
+    }
+
+    @Override
+    public void recordSuccess(String username) {
+        failures.invalidate("user:" + username);
+    }
+
+    private long remaining(String key, int maxFailures, long now) {
+        Failures record = failures.getIfPresent(key);
+        if (record == null) {
+            return 0;
+        }
+        int count;
+        long last;
+        synchronized (record) {
+            record.expire(now - config.getWindow().toMillis());
+            count = record.times.size();
+            if (count < maxFailures) {
+                return 0;
+            }
+            last = record.times.peekLast();
+        }
+        long lockUntil = last + lockMillis(count - maxFailures);
+        return Math.max(0, lockUntil - now);
+    }
+
+    private void record(String key, long now) {
+        // compute 写入后重置过期时间（滑动窗口）
+        failures.asMap().compute(key, (k, record) -> {
+            Failures current = record == null ? new Failures() : record;
+            synchronized (current) {
+                current.expire(now - config.getWindow().toMillis());
+                current.times.addLast(now);
+                if (current.times.size() > MAX_RECORDS) {
+                    current.times.pollFirst();
+                }
+            }
+            return current;
+        });
+    }
+
+    /**
+     * 超出允许次数 excess 次后的锁定时长：首次锁定 × 2^excess，不超过最长锁定
+     */
+    private long lockMillis(int excess) {
+        long base = config.getBaseDelay().toMillis();
+        long max = config.getMaxDelay().toMillis();
+        if (excess >= Long.numberOfLeadingZeros(base) - 1) {
+            return max;
+        }
+        return Math.min(max, base << excess);
+    }
+
+    /**
+     * 窗口内的失败时间（毫秒，按时间顺序）
+     */
+    private static final class Failures {
+
+        private final Deque<Long> times = new ArrayDeque<>();
+
+        private void expire(long windowStart) {
+            while (!times.isEmpty() && times.peekFirst() <= windowStart) {
+                times.pollFirst();
+            }
+        }
+    }
+}
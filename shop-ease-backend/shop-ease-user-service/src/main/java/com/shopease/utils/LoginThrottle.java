@@ -0,0 +1,31 @@
+package com.shopease.utils;
+
+/**
+ * 登录失败限制（按用户名、IP统计失败次数，超出后指数退避）
+ * <p>
+ * 锁定时长 = min(最长锁定, 首次锁定 × 2^(窗口内失败次数 - 允许次数))，从最近一次失败开始计算。
+ * 被锁定的请求在查询数据库、bcrypt 校验之前直接拒绝。
+ *
+ * @author hspcadmin
+ */
+public interface LoginThrottle {
+
+    /**
+     * 查询剩余锁定时间
+     *
+     * @param username 用户名
+     * @param ip       客户端IP
+     * @return 0 表示允许尝试；大于 0 为剩余锁定毫秒数（用户名、IP取较大值）
+     */
+    long remainingLockMillis(String username, String ip);
+
+    /**
+     * 记录一次登录失败（用户名不存在、密码错误）
+     */
+    void recordFailure(String username, String ip);
+
+    /**
+     * 登录成功，清除该用户名的失败记录（IP的失败记录保留，避免用自己的账号重置撞库计数）
+     */
+    void recordSuccess(String username);
+}
@@ -0,0 +1,130 @@
+package com.shopease.utils;
+
+import com.shopease.config.PasswordHashConfig;
+import com.shopease.exception.BusinessException;
+import com.shopease.exception.DeadlineExceededException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希工具类（bcrypt 在专用线程池中执行）
+ * <p>
+ * bcrypt 是纯CPU计算（强度10约几十毫秒），登录高峰时若在 Tomcat 线程上执行，所有请求线程都会被占满，
+ * 查询商品等轻量接口也随之排队。这里使用CPU核数大小的线程池和有界队列：队列已满时直接拒绝（提示稍后再试），
+ * 已超过网关截止时间的任务出队后不再计算。强度可配置，哈希强度低于配置值的密码在登录成功后后台重新哈希。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String BUSY_MESSAGE = "登录人数较多，请稍后再试";
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(PasswordHashConfig config) {
+        this.encoder = new BCryptPasswordEncoder(config.getStrength());
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希线程池已创建，bcrypt强度：{}，线程数：{}，队列长度：{}",
+                config.getStrength(), threads, config.getQueueCapacity());
+    }
+
+    /**
+     * 异步校验密码（登录使用，不占用请求线程）
+     *
+     * @param rawPassword     明文密码
+     * @param encodedPassword 数据库中的哈希
+     * @return 是否匹配；线程池已满时抛出 {@link BusinessException}
+     */
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        return submit(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 校验密码（请求线程等待结果，同样受线程池大小限制）
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(matchesAsync(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 哈希密码（按配置的强度）
+     */
+    public String encode(String rawPassword) {
+        return await(submit(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * 哈希强度低于配置值时后台重新哈希（登录成功后调用）
+     *
+     * @param rawPassword     已校验通过的明文密码
+     * @param encodedPassword 数据库中的哈希
+     * @return 新哈希；无需升级或线程池已满时为 null（下次登录再升级）
+     */
+    public CompletableFuture<String> upgradeIfNeeded(String rawPassword, String encodedPassword) {
+        if (!encoder.upgradeEncoding(encodedPassword)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> encoder.encode(rawPassword), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        // 截止时间绑定在请求线程上，提交时换算为绝对时间
+        long deadlineNanos = Deadline.isSet()
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Deadline.remainingMillis()) : 0L;
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (deadlineNanos != 0L && System.nanoTime() - deadlineNanos >= 0) {
+                    throw new DeadlineExceededException();
+                }
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("密码哈希线程池已满，拒绝请求，排队数：{}", executor.getQueue().size());
+            throw new BusinessException(BUSY_MESSAGE);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,116 @@
+package com.shopease.utils;
+
+import com.shopease.config.LoginThrottleConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Redis 登录失败限制（多个 user-service 实例共享失败计数，Lua 脚本原子执行）
+ * <p>
+ * 每个用户名、IP一个 ZSet（成员为失败时间微秒，分数为失败时间毫秒），时间取自 Redis 服务端（TIME），
+ * 避免各实例时钟不一致。Redis 不可用时放行（失败限制失效优于无法登录）。
+ *
+ * @author hspcadmin
+ */
+@Slf4j
+@Component
+public class RedisLoginThrottle implements LoginThrottle {
+
+    private static final String KEY_PREFIX = "shopease:login:failures:";
+
+    /**
+     * 每个Key最多保留的失败记录数（退避早已达到上限，更早的记录无需保留）
+     */
+    private static final int MAX_RECORDS = 64;
+
+    /**
+     * KEYS[i]: 失败记录Key；ARGV[1]: 窗口（毫秒）；ARGV[2]: 首次锁定（毫秒）；ARGV[3]: 最长锁定（毫秒）；ARGV[3+i]: KEYS[i] 允许的失败次数
+     * 返回剩余锁定毫秒数（0 表示允许尝试）
+     */
+    private static final RedisScript<Long> CHECK_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            local base = tonumber(ARGV[2])
+            local max = tonumber(ARGV[3])
+            local remaining = 0
+            for i, key in ipairs(KEYS) do
+                redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+                local count = redis.call('ZCARD', key)
+                local allowed = tonumber(ARGV[3 + i])
+                if count >= allowed then
+                    local last = tonumber(redis.call('ZRANGE', key, -1, -1, 'WITHSCORES')[2])
+                    local lock = math.min(max, base * math.pow(2, count - allowed))
+                    remaining = math.max(remaining, last + lock - now)
+                end
+            end
+            return math.ceil(remaining)
+            """, Long.class);
+
+    /**
+     * KEYS[i]: 失败记录Key；ARGV[1]: 窗口（毫秒）；ARGV[2]: 最多保留的记录数
+     */
+    private static final RedisScript<Long> RECORD_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local micros = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local now = math.floor(micros / 1000)
+            for _, key in ipairs(KEYS) do
+                redis.call('ZADD', key, now, string.format('%d', micros))
+                redis.call('ZREMRANGEBYSCORE', key, '-inf', now - tonumber(ARGV[1]))
+                redis.call('ZREMRANGEBYRANK', key, 0, -tonumber(ARGV[2]) - 1)
+                redis.call('PEXPIRE', key, ARGV[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final LoginThrottleConfig config;
+
+    private final RedisUtil redisUtil;
+
+    public RedisLoginThrottle(LoginThrottleConfig config, RedisUtil redisUtil) {
+        this.config = config;
+        this.redisUtil = redisUtil;
+    }
+
+    @Override
+    public long remainingLockMillis(String username, String ip) {
+        try {
+            Long remaining = redisUtil.execute(CHECK_SCRIPT, keys(username, ip),
+                    String.valueOf(config.getWindow().toMillis()),
+                    String.valueOf(config.getBaseDelay().toMillis()),
+                    String.valueOf(config.getMaxDelay().toMillis()),
+                    String.valueOf(config.getUsernameMaxFailures()),
+                    String.valueOf(config.getIpMaxFailures()));
+            return remaining == null ? 0 : Math.max(0, remaining);
+        } catch (Exception e) {
+            log.warn("Redis登录失败限制脚本执行失败，本次登录放行：{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void recordFailure(String username, String ip) {
+        try {
+            redisUtil.execute(RECORD_SCRIPT, keys(username, ip),
+                    String.valueOf(config.getWindow().toMillis()), String.valueOf(MAX_RECORDS));
+        } catch (Exception e) {
+            log.warn("Redis记录登录失败次数失败：{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void recordSuccess(String username) {
+        try {
+            redisUtil.delete(KEY_PREFIX + "user:" + username);
+        } catch (Exception e) {
+            log.warn("Redis清除登录失败次数失败：{}", e.getMessage());
+        }
+    }
+
+    private static List<String> keys(String username, String ip) {
+        return List.of(KEY_PREFIX + "user:" + username, KEY_PREFIX + "ip:" + ip);
+    }
+}
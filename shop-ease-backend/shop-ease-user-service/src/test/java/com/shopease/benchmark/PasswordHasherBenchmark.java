@@ -0,0 +1,81 @@
+package com.shopease.benchmark;
+
+import com.shopease.config.PasswordHashConfig;
+import com.shopease.utils.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录密码校验吞吐量基准测试（不同 bcrypt 强度下每秒可完成的登录数）
+ * <p>
+ * 通过 {@link PasswordHasher#matches} 校验密码，与登录接口一样在CPU核数大小的哈希线程池中执行，
+ * 结果即单个 user-service 实例的登录吞吐上限，按部署机器的核数等比换算；
+ * 调整 shopease.password-hash.strength 前可据此评估容量。
+ * <p>
+ * 运行方式（在 shop-ease-user-service 目录下，需先 install shop-ease-common 与 shopease-redis）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.PasswordHasherBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(Threads.MAX)
+public class PasswordHasherBenchmark {
+
+    private static final String RAW_PASSWORD = "Shopease@2025";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private PasswordHasher passwordHasher;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        PasswordHashConfig config = new PasswordHashConfig();
+        config.setStrength(strength);
+        passwordHasher = new PasswordHasher(config);
+        encodedPassword = new BCryptPasswordEncoder(strength).encode(RAW_PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public boolean login() {
+        return passwordHasher.matches(RAW_PASSWORD, encodedPassword);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHasherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,21 @@
+package com.shopease.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户（Controller 方法参数）
+ * <p>
+ * 参数类型为 Long 时注入用户ID，为 {@link com.shopease.utils.LoginUser} 时注入用户ID与用户名；
+ * 由 {@link com.shopease.resolver.CurrentUserArgumentResolver} 解析，未登录时抛出"请先登录"业务异常。
+ *
+ * @author hspcadmin
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
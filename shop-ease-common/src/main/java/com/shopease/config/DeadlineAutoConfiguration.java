@@ -0,0 +1,43 @@
+package com.shopease.config;
+
+import com.shopease.filter.DeadlineServletFilter;
+import com.shopease.interceptor.DeadlineStatementInterceptor;
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * 请求截止时间自动配置（网关透传的 X-ShopEase-Timeout）
+ * <p>
+ * 引入 shop-ease-common 的 Servlet 服务（用户服务、商品服务）自动生效；网关为 WebFlux 应用，不加载。
+ *
+ * @author hspcadmin
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(Interceptor.class)
+public class DeadlineAutoConfiguration {
+
+    /**
+     * 截止时间过滤器：最先执行，预算已用完的请求直接返回504
+     */
+    @Bean
+    public FilterRegistrationBean<DeadlineServletFilter> deadlineServletFilter() {
+        FilterRegistrationBean<DeadlineServletFilter> registration = new FilterRegistrationBean<>(new DeadlineServletFilter());
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * SQL查询超时拦截器：按剩余时间设置 queryTimeout（mybatis-plus 自动加载 Interceptor 类型的 Bean）
+     */
+    @Bean
+    public DeadlineStatementInterceptor deadlineStatementInterceptor() {
+        return new DeadlineStatementInterceptor();
+    }
+}
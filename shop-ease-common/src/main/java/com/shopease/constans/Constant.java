@@ -20,6 +20,11 @@ public class Constant {
      */
     public static final Integer UNAUTH_CODE = 401;
 
+    /**
+     * 排队中代码（网关等候室：请求未被放行，按返回的间隔重试）
+     */
+    public static final Integer QUEUE_CODE = 202;
+
     /**
      * 业务成功消息
      */
@@ -34,4 +39,39 @@ public class Constant {
      * 未登录消息
      */
     public static final String UNAUTH_MESSAGE = "请先登录";
+
+    /**
+     * 排队中消息
+     */
+    public static final String QUEUE_MESSAGE = "当前访问人数较多，正在排队，请稍候";
+
+    /**
+     * 网关验签后透传的用户ID请求头（仅网关写入，客户端携带的同名请求头会被网关清除）
+     */
+    public static final String USER_ID_HEADER = "X-ShopEase-User-Id";
+
+    /**
+     * 网关验签后透传的用户名请求头（仅网关写入，客户端携带的同名请求头会被网关清除）
+     */
+    public static final String USERNAME_HEADER = "X-ShopEase-Username";
+
+    /**
+     * 网关对透传用户身份的签名请求头（签名时间.HMAC，下游服务校验通过后才信任身份请求头，见 JwtUtils#verifyGatewayIdentity）
+     */
+    public static final String IDENTITY_SIGNATURE_HEADER = "X-ShopEase-Identity-Signature";
+
+    /**
+     * 请求剩余时间预算请求头（毫秒）：客户端可携带以缩短超时，网关按路由超时取较小值后改写并透传给下游服务
+     */
+    public static final String TIMEOUT_HEADER = "X-ShopEase-Timeout";
+
+    /**
+     * 已吊销Access Token的发布频道（消息格式："吊销对象 吊销时间毫秒"，吊销对象为 user:用户ID 或 token:Token ID）
+     */
+    public static final String TOKEN_REVOCATION_CHANNEL = "shopease:token:revocation";
+
+    /**
+     * 已吊销Access Token的快照（ZSet：成员为吊销对象，分数为吊销时间毫秒；网关启动与定期对账时全量读取）
+     */
+    public static final String TOKEN_REVOCATION_KEY = "shopease:token:revocations";
 }
@@ -0,0 +1,14 @@
+package com.shopease.exception;
+
+/**
+ * 请求截止时间已过异常
+ * 客户端或网关设置的时间预算已用完，继续处理结果也不会被使用，直接中止
+ *
+ * @author hspcadmin
+ */
+public class DeadlineExceededException extends BusinessException {
+
+    public DeadlineExceededException() {
+        super("请求已超时，请稍后重试");
+    }
+}
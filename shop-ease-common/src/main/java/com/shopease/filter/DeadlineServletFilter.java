@@ -0,0 +1,61 @@
+package com.shopease.filter;
+
+import com.shopease.constans.Constant;
+import com.shopease.utils.Deadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 请求截止时间过滤器（Servlet 服务使用，由 {@link com.shopease.config.DeadlineAutoConfiguration} 注册）
+ * <p>
+ * 读取网关透传的剩余时间预算（X-ShopEase-Timeout，毫秒）并绑定到当前线程（{@link Deadline}）；
+ * 到达时预算已用完（如在网关或负载均衡排队过久）则直接返回 504，不再执行业务逻辑。
+ *
+ * @author hspcadmin
+ */
+public class DeadlineServletFilter extends OncePerRequestFilter {
+
+    private static final String EXPIRED_BODY = "{\"code\":" + Constant.FAIL_CODE + ",\"msg\":\"请求已超时，请稍后重试\",\"data\":null}";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long timeoutMillis = parseTimeout(request.getHeader(Constant.TIMEOUT_HEADER));
+        if (timeoutMillis == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (timeoutMillis <= 0) {
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(EXPIRED_BODY);
+            return;
+        }
+        Deadline.set(timeoutMillis);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+        }
+    }
+
+    private static Long parseTimeout(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.shopease.interceptor;
+
+import com.shopease.utils.Deadline;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 按请求截止时间设置SQL查询超时的 MyBatis 拦截器（由 {@link com.shopease.config.DeadlineAutoConfiguration} 注册为 Bean，mybatis-plus 自动加载）
+ * <p>
+ * 执行前截止时间已过则直接中止；否则将 JDBC queryTimeout 设为剩余秒数（向上取整，不超过已有的超时设置），
+ * 超时后由 MySQL 驱动发送 KILL QUERY 终止数据库侧的执行。
+ *
+ * @author hspcadmin
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class DeadlineStatementInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!Deadline.isSet()) {
+            return invocation.proceed();
+        }
+        Deadline.check();
+        Statement statement = (Statement) invocation.proceed();
+        int remainingSeconds = (int) Math.max(1, (Deadline.remainingMillis() + 999) / 1000);
+        int current = statement.getQueryTimeout();
+        if (current == 0 || remainingSeconds < current) {
+            statement.setQueryTimeout(remainingSeconds);
+        }
+        return statement;
+    }
+}
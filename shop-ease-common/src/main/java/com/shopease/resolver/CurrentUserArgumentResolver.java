@@ -0,0 +1,41 @@
+package com.shopease.resolver;
+
+import com.shopease.annotation.CurrentUser;
+import com.shopease.exception.BusinessException;
+import com.shopease.utils.CurrentUserUtils;
+import com.shopease.utils.LoginUser;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * {@link CurrentUser} 参数解析器（由各服务在 WebMvcConfigurer#addArgumentResolvers 中注册）
+ * <p>
+ * 当前用户通过 {@link CurrentUserUtils#getLoginUser(HttpServletRequest)} 获取并缓存在请求属性中，
+ * 同一请求内多次获取不会重复验签；Service 通过参数接收用户ID，不再依赖静态的请求上下文查询。
+ *
+ * @author hspcadmin
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (type == Long.class || type == long.class || type == LoginUser.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (request == null) {
+            throw new BusinessException("无法获取请求上下文，请确保接口通过HTTP请求访问");
+        }
+        LoginUser loginUser = CurrentUserUtils.getLoginUser(request);
+        return parameter.getParameterType() == LoginUser.class ? loginUser : loginUser.userId();
+    }
+}
@@ -0,0 +1,100 @@
+package com.shopease.utils;
+
+import com.shopease.constans.Constant;
+import com.shopease.exception.BusinessException;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+
+/**
+ * 当前登录用户工具类（仅供 Servlet 服务使用）
+ * <p>
+ * 与 {@link JwtUtils} 分开存放：JwtUtils 同时是网关（WebFlux，无 Servlet API）中的 Bean，
+ * 方法签名中出现 HttpServletRequest 会导致网关启动时无法解析该类。
+ *
+ * @author hspcadmin
+ */
+public final class CurrentUserUtils {
+
+    /**
+     * 请求属性：当前登录用户（{@link LoginUser}，同一请求内只解析一次）
+     */
+    private static final String LOGIN_USER_ATTR = CurrentUserUtils.class.getName() + ".loginUser";
+
+    private CurrentUserUtils() {
+    }
+
+    /**
+     * 获取当前登录用户（核心方法，结果缓存在请求属性中，同一请求内只解析一次）
+     * <p>
+     * 步骤：1. 读取请求级缓存；2. 开启 shopease.jwt.trust-gateway-headers 时读取网关验签后透传的身份请求头
+     * （须带有效的网关签名，签名缺失、错误或过期时忽略身份请求头）；3. 否则提取Authorization头中的Token并验签（支持Bearer前缀，忽略大小写）。
+     *
+     * @param request 当前HTTP请求
+     * @return 当前登录用户
+     * @throws BusinessException 以下情况会抛出业务异常：
+     *                           1. 未携带Authorization Token；
+     *                           2. Token中未包含用户ID；
+     *                           3. Token无效（过期、签名错误、格式错误等）；
+     */
+    public static LoginUser getLoginUser(HttpServletRequest request) {
+        // 1. 同一请求内已解析过，直接返回
+        if (request.getAttribute(LOGIN_USER_ATTR) instanceof LoginUser cached) {
+            return cached;
+        }
+        LoginUser loginUser = resolveLoginUser(request);
+        request.setAttribute(LOGIN_USER_ATTR, loginUser);
+        return loginUser;
+    }
+
+    private static LoginUser resolveLoginUser(HttpServletRequest request) {
+        // 2. 信任网关时使用网关透传的用户身份（校验网关签名，防止直连服务端口伪造身份）
+        if (JwtUtils.isTrustGatewayHeaders()) {
+            String gatewayUserId = request.getHeader(Constant.USER_ID_HEADER);
+            String gatewayUsername = request.getHeader(Constant.USERNAME_HEADER);
+            if (StringUtils.hasText(gatewayUserId) && JwtUtils.verifyGatewayIdentity(gatewayUserId, gatewayUsername,
+                    request.getHeader(Constant.IDENTITY_SIGNATURE_HEADER))) {
+                try {
+                    return new LoginUser(Long.parseLong(gatewayUserId.trim()), gatewayUsername);
+                } catch (NumberFormatException e) {
+                    throw new BusinessException("登录已过期，请重新登录");
+                }
+            }
+        }
+
+        // 3. 提取Authorization头中的Token
+        String token = request.getHeader("Authorization");
+        // 判空处理（避免空指针）
+        if (token == null) {
+            throw new BusinessException("请先登录（未携带Authorization Token）");
+        }
+        // 去除首尾空格（避免前端传参带空格）
+        token = token.trim();
+        // 兼容Bearer前缀（忽略大小写，如：Bearer xxxx 或 bearer xxxx）
+        if (token.toLowerCase().startsWith("bearer ")) {
+            // 截取第7位之后的内容（"Bearer " 共7个字符：B e a r e r 空格）
+            token = token.substring(7).trim();
+        }
+        // 校验Token是否为空字符串
+        if (token.isEmpty()) {
+            throw new BusinessException("请先登录（未携带Authorization Token）");
+        }
+
+        try {
+            // 4. 解析Token获取载荷信息
+            Claims claims = JwtUtils.getClaims(token);
+            // 5. 提取用户ID并校验（避免null）
+            Long userId = claims.get("userId", Long.class);
+            if (userId == null) {
+                throw new BusinessException("Token中未包含用户ID");
+            }
+            return new LoginUser(userId, claims.get("username", String.class));
+        } catch (BusinessException e) {
+            // 捕获自定义业务异常，直接抛出（保留原始异常信息）
+            throw e;
+        } catch (Exception e) {
+            // 捕获Token过期、签名错误、解析异常等，统一抛出登录过期异常
+            throw new BusinessException("登录已过期，请重新登录");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.shopease.utils;
+
+import com.shopease.exception.DeadlineExceededException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 当前请求的截止时间（线程绑定）
+ * <p>
+ * 由 {@link com.shopease.filter.DeadlineServletFilter} 根据网关透传的 X-ShopEase-Timeout 设置，
+ * 业务代码在耗时操作（AI调用、批量查询等）前调用 {@link #check()}，截止时间已过时直接中止；
+ * SQL 由 {@link com.shopease.interceptor.DeadlineStatementInterceptor} 按剩余时间设置查询超时。
+ * 未携带截止时间的请求（如服务内部调用）不受限制。
+ *
+ * @author hspcadmin
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private Deadline() {
+    }
+
+    /**
+     * 设置截止时间
+     *
+     * @param timeoutMillis 从现在起的剩余时间（毫秒）
+     */
+    public static void set(long timeoutMillis) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    /**
+     * 当前请求是否设置了截止时间
+     */
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * 剩余时间（毫秒）；未设置截止时间时返回 Long.MAX_VALUE，已过期时返回 0
+     */
+    public static long remainingMillis() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (deadlineNanos == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * 截止时间是否已过
+     */
+    public static boolean isExpired() {
+        return remainingMillis() == 0;
+    }
+
+    /**
+     * 截止时间已过则抛出 {@link DeadlineExceededException}
+     */
+    public static void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.shopease.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import com.shopease.exception.BusinessException;
-import jakarta.servlet.http.HttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Base64;
 import java.util.Date;
 import java.util.UUID;
 
@@ -20,22 +31,39 @@ import java.util.UUID;
  * <p>
  * 功能包括：生成Access Token、生成Refresh Token、验证Token有效性、解析Token中的用户信息、
  * 从请求上下文获取当前登录用户ID等，适配JWT标准Base64URL编码，避免解码冲突。
+ * <p>
+ * 签名密钥与解析器在注入密钥时构建一次并缓存（JwtParser 线程安全），配置中心修改
+ * shopease.jwt.secret 后通过 {@link EnvironmentChangeEvent} 自动重建，避免每次校验重复构建。
+ * <p>
+ * 网关透传的用户身份请求头附带 HMAC 签名（{@link #signGatewayIdentity}），密钥由 JWT 签名密钥派生，
+ * 下游服务校验签名与时间戳后才信任该身份，直连服务端口伪造的身份请求头无效。
  *
  * @author hspcadmin
  * &#064;date  2025-11-30
  * @since 1.0.0
  */
 @Component
-public class JwtUtils {
+public class JwtUtils implements EnvironmentAware, ApplicationListener<EnvironmentChangeEvent> {
+
+    /**
+     * JWT签名密钥配置项
+     */
+    private static final String SECRET_PROPERTY = "shopease.jwt.secret";
 
     /**
-     * JWT签名密钥（从配置文件注入，默认值为32字节的密钥，满足HS256算法要求）
+     * 默认签名密钥（32字节，满足HS256算法要求）
      */
-    private static String secret;
+    private static final String DEFAULT_SECRET = "shopease-secret-key-32bytes-long-12345678";
+
+    /**
+     * 当前生效的签名材料（密钥+解析器），密钥变更时整体替换，保证读取到的密钥与解析器一致
+     */
+    private static volatile SigningMaterial signingMaterial;
 
     /**
      * Access Token过期时间（毫秒，默认30分钟：1800000ms，配置文件可自定义）
      */
+    @Getter
     private static long accessTokenExpiration;
 
     /**
@@ -44,16 +72,80 @@ public class JwtUtils {
     @Getter
     private static long refreshTokenExpiration;
 
+    /**
+     * 是否信任网关透传的用户身份请求头（开启后不再重复验签，服务必须只能通过网关访问）
+     */
+    private static boolean trustGatewayHeaders;
+
+    /**
+     * 网关身份签名的有效期（毫秒），超过则不再信任（防止截获的请求头被长期重放）
+     */
+    private static long gatewayIdentityMaxAge;
+
+    /**
+     * 是否信任网关透传的用户身份请求头（供 {@link CurrentUserUtils} 读取）
+     */
+    static boolean isTrustGatewayHeaders() {
+        return trustGatewayHeaders;
+    }
+
+    /**
+     * Spring环境（用于配置刷新时读取最新密钥）
+     */
+    private Environment environment;
+
     /**
      * 注入JWT签名密钥到静态字段
      * <p>
-     * Spring不支持直接注入静态字段，通过非静态setter方法间接注入
+     * Spring不支持直接注入静态字段，通过非静态setter方法间接注入；
+     * 密钥未变化时不重建，变化时一次性构建新的密钥与解析器
      *
      * @param secret 配置文件中的JWT签名密钥
      */
-    @Value("${shopease.jwt.secret:shopease-secret-key-32bytes-long-12345678}")
+    @Value("${shopease.jwt.secret:" + DEFAULT_SECRET + "}")
     public void setSecret(String secret) {
-        JwtUtils.secret = secret;
+        SigningMaterial current = signingMaterial;
+        if (current != null && current.secret().equals(secret)) {
+            return;
+        }
+        signingMaterial = SigningMaterial.of(secret);
+    }
+
+    /**
+     * 注入是否信任网关身份请求头的开关
+     *
+     * @param trustGatewayHeaders 配置文件中的开关（默认关闭）
+     */
+    @Value("${shopease.jwt.trust-gateway-headers:false}")
+    public void setTrustGatewayHeaders(boolean trustGatewayHeaders) {
+        JwtUtils.trustGatewayHeaders = trustGatewayHeaders;
+    }
+
+    /**
+     * 注入网关身份签名的有效期
+     *
+     * @param maxAge 配置文件中的有效期（毫秒，默认5分钟，需覆盖网关内排队与下游最长超时）
+     */
+    @Value("${shopease.jwt.gateway-identity-max-age:300000}")
+    public void setGatewayIdentityMaxAge(long maxAge) {
+        JwtUtils.gatewayIdentityMaxAge = maxAge;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * 配置中心（Nacos）刷新后，若密钥发生变化则重建签名材料
+     *
+     * @param event 环境变更事件（包含变更的配置项）
+     */
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        if (environment != null && event.getKeys().contains(SECRET_PROPERTY)) {
+            setSecret(environment.getProperty(SECRET_PROPERTY, DEFAULT_SECRET));
+        }
     }
 
     /**
@@ -90,20 +182,25 @@ public class JwtUtils {
     /**
      * 生成Access Token（包含用户ID和用户名，使用HS256算法签名）
      * <p>
-     * Access Token用于接口鉴权，有效期较短，避免被盗用后造成长时间风险
+     * Access Token用于接口鉴权，有效期较短，避免被盗用后造成长时间风险；
+     * 携带签发时间（iat）与Token ID（jti），网关据此拒绝已吊销的Token（修改密码、退出登录）
      *
      * @param userId   用户ID（自定义Claim）
      * @param username 用户名（自定义Claim）
      * @return 签名后的JWT字符串（Access Token）
      */
     public static String generateAccessToken(Long userId, String username) {
-        // 生成HS256算法所需的密钥（基于配置的secret）
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+        // 使用缓存的HS256密钥（基于配置的secret）
+        Key key = material().key();
         return Jwts.builder()
                 // 自定义载荷：用户ID
                 .claim("userId", userId)
                 // 自定义载荷：用户名
                 .claim("username", username)
+                // Token ID（按单个Token吊销）
+                .setId(UUID.randomUUID().toString().replace("-", ""))
+                // 签发时间（按用户吊销此前签发的所有Token）
+                .setIssuedAt(new Date())
                 // 设置过期时间
                 .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
                 // 使用HS256算法签名
@@ -120,12 +217,8 @@ public class JwtUtils {
      */
     public static boolean validateToken(String token) {
         try {
-            Key key = Keys.hmacShaKeyFor(secret.getBytes());
-            // 解析Token并验证签名
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+            // 解析Token并验证签名（复用线程安全的解析器）
+            material().parser().parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             // 捕获所有异常（签名异常、过期异常、解析异常等），返回false
@@ -140,68 +233,114 @@ public class JwtUtils {
      * @return Token中的载荷信息（包含自定义Claim和标准Claim）
      */
     public static Claims getClaims(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        return material().parser()
                 .parseClaimsJws(token)
                 .getBody(); // 获取载荷体
     }
 
     /**
-     * 从HTTP请求的Authorization头中解析当前登录用户的ID（核心方法）
+     * 从HTTP请求的Authorization头中解析当前登录用户的ID
      * <p>
-     * 步骤：1. 获取请求上下文；2. 提取Authorization头中的Token；3. 解析Token获取用户ID；
-     * 兼容前端传递的Token格式（支持Bearer前缀，忽略大小写）
+     * 兼容旧的调用方式：通过请求上下文获取请求后委托 {@link CurrentUserUtils#getLoginUser}，
+     * 新代码请在 Controller 参数上使用 {@link com.shopease.annotation.CurrentUser} 并将用户ID传给 Service。
      *
      * @return 当前登录用户的ID（Long类型）
-     * @throws BusinessException 以下情况会抛出业务异常：
-     *                           1. 无法获取请求上下文（非HTTP请求调用）；
-     *                           2. 未携带Authorization Token；
-     *                           3. Token中未包含用户ID；
-     *                           4. Token无效（过期、签名错误、格式错误等）；
+     * @throws BusinessException 无法获取请求上下文或未登录时抛出（见 {@link CurrentUserUtils#getLoginUser}）
      */
     public static Long getUserIdFromToken() {
-        // 1. 校验请求上下文是否存在（避免空指针异常）
+        // 校验请求上下文是否存在（避免空指针异常）
         ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (requestAttributes == null) {
             throw new BusinessException("无法获取请求上下文，请确保接口通过HTTP请求访问");
         }
+        return CurrentUserUtils.getLoginUser(requestAttributes.getRequest()).userId();
+    }
 
-        // 2. 获取HTTP请求对象，并提取Authorization头中的Token
-        HttpServletRequest request = requestAttributes.getRequest();
-        String token = request.getHeader("Authorization");
-        // 判空处理（避免空指针）
-        if (token == null) {
-            throw new BusinessException("请先登录（未携带Authorization Token）");
+    /**
+     * 为网关透传的用户身份签名（网关验签Token后调用）
+     *
+     * @param userId    用户ID
+     * @param username  用户名（可为null）
+     * @param timestamp 签名时间（毫秒）
+     * @return 签名请求头的值：签名时间.Base64URL(HMAC-SHA256(用户ID, 用户名, 签名时间))
+     */
+    public static String signGatewayIdentity(String userId, String username, long timestamp) {
+        return timestamp + "." + identityMac(material(), userId, username, timestamp);
+    }
+
+    /**
+     * 校验网关透传的用户身份签名（签名一致且未超过有效期）
+     *
+     * @param userId    身份请求头中的用户ID
+     * @param username  身份请求头中的用户名（可为null）
+     * @param signature 签名请求头的值
+     * @return true：身份由持有密钥的网关签发；false：缺少签名、签名错误或已过期
+     */
+    public static boolean verifyGatewayIdentity(String userId, String username, String signature) {
+        if (userId == null || signature == null) {
+            return false;
         }
-        // 去除首尾空格（避免前端传参带空格）
-        token = token.trim();
-        // 兼容Bearer前缀（忽略大小写，如：Bearer xxxx 或 bearer xxxx）
-        if (token.toLowerCase().startsWith("bearer ")) {
-            // 截取第7位之后的内容（"Bearer " 共7个字符：B e a r e r 空格）
-            token = token.substring(7).trim();
+        int separator = signature.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(signature.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return false;
         }
-        // 校验Token是否为空字符串
-        if (token.isEmpty()) {
-            throw new BusinessException("请先登录（未携带Authorization Token）");
+        if (Math.abs(System.currentTimeMillis() - timestamp) > gatewayIdentityMaxAge) {
+            return false;
         }
+        String expected = identityMac(material(), userId, username, timestamp);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                signature.substring(separator + 1).getBytes(StandardCharsets.US_ASCII));
+    }
 
+    private static String identityMac(SigningMaterial material, String userId, String username, long timestamp) {
+        String payload = userId + "\n" + (username == null ? "" : username) + "\n" + timestamp;
+        byte[] mac = hmacSha256(material.identityKey(), payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac);
+    }
+
+    private static byte[] hmacSha256(byte[] key, byte[] data) {
         try {
-            // 3. 解析Token获取载荷信息
-            Claims claims = getClaims(token);
-            // 4. 提取用户ID并校验（避免null）
-            Long userId = claims.get("userId", Long.class);
-            if (userId == null) {
-                throw new BusinessException("Token中未包含用户ID");
-            }
-            return userId;
-        } catch (BusinessException e) {
-            // 捕获自定义业务异常，直接抛出（保留原始异常信息）
-            throw e;
-        } catch (Exception e) {
-            // 捕获Token过期、签名错误、解析异常等，统一抛出登录过期异常
-            throw new BusinessException("登录已过期，请重新登录");
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256不可用", e);
+        }
+    }
+
+    /**
+     * 获取当前签名材料（密钥尚未由Spring注入时直接失败，不使用公开的默认密钥签发或校验Token）
+     */
+    private static SigningMaterial material() {
+        SigningMaterial current = signingMaterial;
+        if (current == null) {
+            throw new IllegalStateException("JWT签名密钥未初始化，请确认 JwtUtils 已由Spring容器加载（" + SECRET_PROPERTY + "）");
+        }
+        return current;
+    }
+
+    /**
+     * 签名材料：密钥原文、HMAC密钥、绑定该密钥的解析器与网关身份签名密钥（不可变，可跨线程共享）
+     * <p>
+     * 身份签名密钥由JWT密钥派生（HMAC-SHA256(密钥, 用途标识)），与Token签名互不通用
+     */
+    private record SigningMaterial(String secret, Key key, JwtParser parser, byte[] identityKey) {
+
+        private static final byte[] IDENTITY_KEY_LABEL = "shopease-gateway-identity".getBytes(StandardCharsets.UTF_8);
+
+        static SigningMaterial of(String secret) {
+            byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+            Key key = Keys.hmacShaKeyFor(secretBytes);
+            JwtParser parser = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build();
+            return new SigningMaterial(secret, key, parser, hmacSha256(secretBytes, IDENTITY_KEY_LABEL));
         }
     }
-}
\ No newline at end of file
+}
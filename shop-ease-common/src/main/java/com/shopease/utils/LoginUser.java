@@ -0,0 +1,11 @@
+package com.shopease.utils;
+
+/**
+ * 当前登录用户（请求级缓存，同一请求内只解析一次Token或网关身份请求头）
+ *
+ * @param userId   用户ID
+ * @param username 用户名（网关未透传或Token中没有时为null）
+ * @author hspcadmin
+ */
+public record LoginUser(Long userId, String username) {
+}
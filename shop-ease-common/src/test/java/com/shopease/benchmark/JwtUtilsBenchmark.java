@@ -0,0 +1,83 @@
+package com.shopease.benchmark;
+
+import com.shopease.utils.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 校验吞吐量基准测试（每秒校验次数）
+ * <p>
+ * cachedParser：{@link JwtUtils#validateToken} 复用注入密钥时构建的密钥与解析器；
+ * rebuildPerCall：每次校验重新构建密钥与解析器（缓存前的实现），作为对照组。
+ * 对照组每次构建都会经由 ServiceLoader 加载 jjwt 实现类，JIT 预热较慢，故预热轮次较多。
+ * <p>
+ * 运行方式（在 shop-ease-common 目录下）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.JwtUtilsBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "shopease-benchmark-secret-key-32bytes-long";
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        new JwtUtils().setSecret(SECRET);
+        new JwtUtils().setExpiration(1800000L);
+        token = JwtUtils.generateAccessToken(7L, "bob");
+    }
+
+    @Benchmark
+    public boolean cachedParser() {
+        return JwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean rebuildPerCall() {
+        try {
+            Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+            Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
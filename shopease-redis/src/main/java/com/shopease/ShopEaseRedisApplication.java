@@ -3,8 +3,9 @@ package com.shopease;
 import com.shopease.utils.RedisUtil;
 import jakarta.annotation.Resource;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
 import java.util.List;
 import java.util.Map;
@@ -21,10 +22,14 @@ public class ShopEaseRedisApplication {
     private RedisUtil redisUtil;
 
     public static void main(String[] args) {
-        SpringApplication.run(ShopEaseRedisApplication.class, args);
+        // 仅独立启动本模块时执行自测（作为依赖被各微服务扫描到时不执行，避免写入测试数据）
+        new SpringApplicationBuilder(ShopEaseRedisApplication.class)
+                .properties("shopease.redis.self-test=true")
+                .run(args);
     }
 
     @Bean
+    @ConditionalOnProperty(prefix = "shopease.redis", name = "self-test", havingValue = "true")
     public CommandLineRunner testRedis() {
         return args -> {
             System.out.println("========== 开始测试Redis工具类 ==========");
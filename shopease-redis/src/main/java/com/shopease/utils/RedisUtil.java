@@ -2,9 +2,12 @@ package com.shopease.utils;
 
 import jakarta.annotation.Resource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import java.util.Collection;
 import java.util.List;
@@ -142,4 +145,20 @@ public class RedisUtil {
     public Set<ZSetOperations.TypedTuple<Object>> zrangeByScore(String key, double min, double max) {
         return redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max);
     }
+
+    // ==================== 遍历 ====================
+    /**
+     * 按模式增量遍历键（SCAN，不阻塞Redis；使用后需关闭Cursor）
+     */
+    public Cursor<String> scan(String pattern, long count) {
+        return stringRedisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(count).build());
+    }
+
+    // ==================== Lua脚本 ====================
+    /**
+     * 执行Lua脚本（原子执行，一次网络往返；参数按字符串传递）
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+        return stringRedisTemplate.execute(script, keys, (Object[]) args);
+    }
 }
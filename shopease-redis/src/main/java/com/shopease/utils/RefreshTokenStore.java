@@ -0,0 +1,210 @@
+package com.shopease.utils;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh Token 存储：每个操作一个 Lua 脚本，一次网络往返
+ * <p>
+ * 数据结构：
+ * <ul>
+ *     <li>String：shopease:refresh_token:{token} -> 用户ID（带过期时间，刷新Access Token时查询）</li>
+ *     <li>ZSet：shopease:user:refresh_token_index:{userId} -> {token: 过期时间毫秒}（用户的所有会话，修改密码时批量删除）</li>
+ * </ul>
+ * 会话索引按过期时间排序：每次写入、删除时先清理已过期的成员（Token 的 String 已自然过期），
+ * 索引本身在最晚过期的会话过期时一起过期；长期活跃用户的索引由 {@link #sweep(int)} 定期清理。
+ * 可限制每个用户的会话数，超出时删除最早过期的会话。批量删除在脚本内拼接 Token Key 并用 UNLINK 删除
+ * （内存在后台线程释放），与会话数无关始终一次往返。脚本访问了未在 KEYS 中声明的 Key，
+ * 仅适用于单机 Redis（与 {@link RedisUtil} 的连接配置一致）。
+ * <p>
+ * 旧版本的会话索引为 Hash（shopease:user:refresh_tokens:{userId}），批量删除时一并清理，到期后自然消失。
+ *
+ * @author hspcadmin
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final String TOKEN_KEY_PREFIX = "shopease:refresh_token:";
+
+    private static final String USER_INDEX_KEY_PREFIX = "shopease:user:refresh_token_index:";
+
+    private static final String LEGACY_USER_TOKENS_KEY_PREFIX = "shopease:user:refresh_tokens:";
+
+    /**
+     * 按批 UNLINK 的 Lua 函数（unpack 参数个数有限制）
+     */
+    private static final String UNLINK_ALL = """
+            local function unlink_all(prefix, tokens)
+                local batch = {}
+                for i, token in ipairs(tokens) do
+                    batch[#batch + 1] = prefix .. token
+                    if #batch == 500 or i == #tokens then
+                        redis.call('UNLINK', unpack(batch))
+                        batch = {}
+                    end
+                end
+            end
+            """;
+
+    /**
+     * KEYS[1]: Token Key；KEYS[2]: 用户会话索引；ARGV[1]: 用户ID；ARGV[2]: Token；ARGV[3]: 过期时间（毫秒）；
+     * ARGV[4]: 会话数上限（0 不限制）；ARGV[5]: Token Key前缀
+     * 返回因超出上限被删除的会话数
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of(UNLINK_ALL + """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local ttl = tonumber(ARGV[3])
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ttl)
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)
+            redis.call('ZADD', KEYS[2], now + ttl, ARGV[2])
+            local evicted = 0
+            local max = tonumber(ARGV[4])
+            if max > 0 then
+                local excess = redis.call('ZCARD', KEYS[2]) - max
+                if excess > 0 then
+                    unlink_all(ARGV[5], redis.call('ZRANGE', KEYS[2], 0, excess - 1))
+                    redis.call('ZREMRANGEBYRANK', KEYS[2], 0, excess - 1)
+                    evicted = excess
+                end
+            end
+            local last = redis.call('ZRANGE', KEYS[2], -1, -1, 'WITHSCORES')
+            redis.call('PEXPIREAT', KEYS[2], last[2])
+            return evicted
+            """, Long.class);
+
+    /**
+     * KEYS[1]: Token Key；KEYS[2]: 用户会话索引；ARGV[1]: Token
+     * 返回删除的Token Key数（0 表示已过期）
+     */
+    private static final RedisScript<Long> REMOVE_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('ZREM', KEYS[2], ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)
+            return redis.call('UNLINK', KEYS[1])
+            """, Long.class);
+
+    /**
+     * KEYS[1]: 用户会话索引；KEYS[2]: 旧版会话Hash；ARGV[1]: Token Key前缀
+     * 返回删除的会话数
+     */
+    private static final RedisScript<Long> REMOVE_ALL_SCRIPT = RedisScript.of(UNLINK_ALL + """
+            local tokens = redis.call('ZRANGE', KEYS[1], 0, -1)
+            local legacy = redis.call('HKEYS', KEYS[2])
+            unlink_all(ARGV[1], tokens)
+            unlink_all(ARGV[1], legacy)
+            redis.call('UNLINK', KEYS[1], KEYS[2])
+            return #tokens + #legacy
+            """, Long.class);
+
+    /**
+     * KEYS: 用户会话索引；返回清理的过期会话数
+     */
+    private static final RedisScript<Long> PRUNE_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local pruned = 0
+            for _, key in ipairs(KEYS) do
+                pruned = pruned + redis.call('ZREMRANGEBYSCORE', key, '-inf', now)
+            end
+            return pruned
+            """, Long.class);
+
+    private final RedisUtil redisUtil;
+
+    public RefreshTokenStore(RedisUtil redisUtil) {
+        this.redisUtil = redisUtil;
+    }
+
+    /**
+     * 保存Refresh Token（Token Key、会话索引、过期时间一次写入，同时清理该用户已过期的会话）
+     *
+     * @param refreshToken 刷新令牌
+     * @param userId       用户ID
+     * @param timeout      有效期
+     * @param unit         时间单位
+     * @param maxSessions  每个用户的会话数上限（小于等于0不限制），超出时删除最早过期的会话
+     * @return 因超出上限被删除的会话数
+     */
+    public long save(String refreshToken, Long userId, long timeout, TimeUnit unit, int maxSessions) {
+        Long evicted = redisUtil.execute(SAVE_SCRIPT, List.of(tokenKey(refreshToken), userIndexKey(userId)),
+                userId.toString(), refreshToken, String.valueOf(unit.toMillis(timeout)),
+                String.valueOf(Math.max(0, maxSessions)), TOKEN_KEY_PREFIX);
+        return evicted == null ? 0 : evicted;
+    }
+
+    /**
+     * 查询Refresh Token对应的用户ID
+     *
+     * @return 用户ID；Token不存在或已过期时为 null
+     */
+    public Long getUserId(String refreshToken) {
+        String userId = redisUtil.get(tokenKey(refreshToken));
+        return userId == null ? null : Long.parseLong(userId);
+    }
+
+    /**
+     * 删除单个Refresh Token（退出登录）
+     *
+     * @return Token是否存在（已过期时为 false）
+     */
+    public boolean remove(String refreshToken, Long userId) {
+        Long deleted = redisUtil.execute(REMOVE_SCRIPT, List.of(tokenKey(refreshToken), userIndexKey(userId)),
+                refreshToken);
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * 删除用户的所有Refresh Token（修改密码），一次往返
+     *
+     * @return 删除的会话数
+     */
+    public long removeAll(Long userId) {
+        Long removed = redisUtil.execute(REMOVE_ALL_SCRIPT,
+                List.of(userIndexKey(userId), LEGACY_USER_TOKENS_KEY_PREFIX + userId), TOKEN_KEY_PREFIX);
+        return removed == null ? 0 : removed;
+    }
+
+    /**
+     * 清理所有用户会话索引中已过期的会话（SCAN 遍历，每批一次往返，供定时任务调用）
+     *
+     * @param batchSize 每批处理的索引数
+     * @return 清理的过期会话数
+     */
+    public long sweep(int batchSize) {
+        long pruned = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> keys = redisUtil.scan(USER_INDEX_KEY_PREFIX + "*", batchSize)) {
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == batchSize) {
+                    pruned += prune(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            pruned += prune(batch);
+        }
+        return pruned;
+    }
+
+    private long prune(List<String> indexKeys) {
+        Long pruned = redisUtil.execute(PRUNE_SCRIPT, indexKeys);
+        return pruned == null ? 0 : pruned;
+    }
+
+    private static String tokenKey(String refreshToken) {
+        return TOKEN_KEY_PREFIX + refreshToken;
+    }
+
+    private static String userIndexKey(Long userId) {
+        return USER_INDEX_KEY_PREFIX + userId;
+    }
+}
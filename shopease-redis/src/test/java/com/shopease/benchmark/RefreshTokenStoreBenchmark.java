@@ -0,0 +1,176 @@
+package com.shopease.benchmark;
+
+import com.shopease.config.RedisAutoConfiguration;
+import com.shopease.config.RedisProperties;
+import com.shopease.utils.RedisUtil;
+import com.shopease.utils.RefreshTokenStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh Token 存储延迟基准测试（真实 Redis：单次往返的 Lua 脚本与逐条命令对比）
+ * <p>
+ * loginWrite*：登录写入 Refresh Token，legacy 为 SET + HSET + EXPIRE 三次往返，store 为 {@link RefreshTokenStore#save} 一次往返；
+ * revokeAll*：修改密码时删除用户的全部会话（sessions 个），legacy 为 HGETALL + 每个会话一次 DEL + DEL，
+ * store 为 {@link RefreshTokenStore#removeAll} 一次往返。每次删除前重新写入会话（不计入耗时）。
+ * 本机 Redis 往返只有几十微秒，跨机房部署时每少一次往返即少一个网络RTT。
+ * <p>
+ * 需要一个可写的 Redis（默认 localhost:6379 的 15 号库，可用 -Dredis.host、-Dredis.port、-Dredis.database 指定），
+ * 测试数据10分钟后自动过期，不会清空库。运行方式（在 shopease-redis 目录下）：
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) com.shopease.benchmark.RefreshTokenStoreBenchmark
+ * </pre>
+ *
+ * @author hspcadmin
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class RefreshTokenStoreBenchmark {
+
+    private static final String TOKEN_KEY_PREFIX = "shopease:refresh_token:";
+
+    private static final String LEGACY_USER_TOKENS_KEY_PREFIX = "shopease:user:refresh_tokens:";
+
+    /**
+     * 测试数据的有效期（秒），结束后自然过期
+     */
+    private static final long TTL_SECONDS = 600;
+
+    /**
+     * 登录写入轮换使用的用户数（避免单个用户的会话无限增长）
+     */
+    private static final int USERS = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Redis {
+
+        LettuceConnectionFactory connectionFactory;
+
+        RedisUtil redisUtil;
+
+        RefreshTokenStore store;
+
+        long sequence;
+
+        @Setup
+        public void connect() {
+            RedisProperties properties = new RedisProperties();
+            properties.setHost(System.getProperty("redis.host", "localhost"));
+            properties.setPort(Integer.getInteger("redis.port", 6379));
+            properties.setDatabase(Integer.getInteger("redis.database", 15));
+            RedisAutoConfiguration configuration = new RedisAutoConfiguration(properties);
+            connectionFactory = (LettuceConnectionFactory) configuration.redisConnectionFactory();
+            connectionFactory.afterPropertiesSet();
+            RedisTemplate<String, Object> redisTemplate = configuration.redisTemplate(connectionFactory);
+            StringRedisTemplate stringRedisTemplate = configuration.stringRedisTemplate(connectionFactory);
+            redisUtil = new RedisUtil(redisTemplate, stringRedisTemplate);
+            store = new RefreshTokenStore(redisUtil);
+        }
+
+        @TearDown
+        public void close() {
+            connectionFactory.destroy();
+        }
+
+        String nextToken() {
+            return "bench" + Long.toHexString(System.nanoTime()) + "x" + (sequence++);
+        }
+
+        long nextUserId() {
+            return 900_000_000L + sequence % USERS;
+        }
+    }
+
+    /**
+     * 待删除的会话（每次删除前重新写入）
+     */
+    @State(Scope.Thread)
+    public static class Sessions {
+
+        @Param({"1", "100", "1000"})
+        int sessions;
+
+        final long userId = 990_000_000L;
+
+        @Setup(Level.Invocation)
+        public void seed(Redis redis, BenchmarkParams params) {
+            boolean legacy = params.getBenchmark().endsWith("Legacy");
+            for (int i = 0; i < sessions; i++) {
+                String token = redis.nextToken();
+                if (legacy) {
+                    legacySave(redis.redisUtil, token, userId);
+                } else {
+                    redis.store.save(token, userId, TTL_SECONDS, TimeUnit.SECONDS, 0);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void loginWriteLegacy(Redis redis) {
+        legacySave(redis.redisUtil, redis.nextToken(), redis.nextUserId());
+    }
+
+    @Benchmark
+    public long loginWriteStore(Redis redis) {
+        return redis.store.save(redis.nextToken(), redis.nextUserId(), TTL_SECONDS, TimeUnit.SECONDS, 0);
+    }
+
+    @Benchmark
+    public int revokeAllLegacy(Redis redis, Sessions sessions) {
+        RedisUtil redisUtil = redis.redisUtil;
+        String userTokensKey = LEGACY_USER_TOKENS_KEY_PREFIX + sessions.userId;
+        Map<Object, Object> tokens = redisUtil.hgetAll(userTokensKey);
+        for (Object token : tokens.keySet()) {
+            redisUtil.delete(TOKEN_KEY_PREFIX + token);
+        }
+        redisUtil.delete(userTokensKey);
+        return tokens.size();
+    }
+
+    @Benchmark
+    public long revokeAllStore(Redis redis, Sessions sessions) {
+        return redis.store.removeAll(sessions.userId);
+    }
+
+    /**
+     * 优化前的登录写入：Token Key、会话Hash、Hash过期时间各一次往返
+     */
+    private static void legacySave(RedisUtil redisUtil, String token, long userId) {
+        String userTokensKey = LEGACY_USER_TOKENS_KEY_PREFIX + userId;
+        redisUtil.set(TOKEN_KEY_PREFIX + token, String.valueOf(userId), TTL_SECONDS, TimeUnit.SECONDS);
+        redisUtil.hset(userTokensKey, token, true);
+        redisUtil.expire(userTokensKey, TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RefreshTokenStoreBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}